@@ -1,12 +1,27 @@
 package com.smartcontactmanager;
 
+import com.smartcontactmanager.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC belongs to the reactive read API's own context (see reactive.ReactiveReadApi); here its
+// ConnectionFactory would make the JDBC DataSource and JPA transaction manager back off
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class SmartContactManagerApplication {
 
+    // Enough for every step of a full startup, which records about one per bean
+    private static final int STARTUP_STEPS = 10000;
+
     public static void main(String[] args) {
-        SpringApplication.run(SmartContactManagerApplication.class, args);
+        SpringApplication application = new SpringApplication(SmartContactManagerApplication.class);
+        // Records the startup steps for config.StartupReport
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 }
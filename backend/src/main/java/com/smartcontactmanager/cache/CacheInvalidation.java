@@ -0,0 +1,66 @@
+package com.smartcontactmanager.cache;
+
+/**
+ * One key of one cache became stale
+ * Sent by CacheInvalidationBus to the other instances through an InvalidationTransport.
+ */
+public class CacheInvalidation {
+
+    private final String origin;
+    private final String cache;
+    private final String key;
+    private final long publishedAt;
+
+    /**
+     * @param origin Id of the instance that made the change
+     * @param cache Cache name, e.g. CacheInvalidationBus.USERS
+     * @param key The stale key
+     * @param publishedAt When the change was published, epoch milliseconds
+     */
+    public CacheInvalidation(String origin, String cache, String key, long publishedAt) {
+        this.origin = origin;
+        this.cache = cache;
+        this.key = key;
+        this.publishedAt = publishedAt;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+
+    /**
+     * Encode as a single line message: origin, cache, time and key separated by tabs
+     * The key comes last so it may contain anything but a line break.
+     */
+    public String encode() {
+        return origin + '\t' + cache + '\t' + publishedAt + '\t' + key;
+    }
+
+    /**
+     * Decode a message written by {@link #encode()}
+     * @throws IllegalArgumentException if the message is malformed
+     */
+    public static CacheInvalidation decode(String message) {
+        String[] parts = message.split("\t", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cache invalidation: " + message);
+        }
+        try {
+            return new CacheInvalidation(parts[0], parts[1], parts[3], Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cache invalidation: " + message);
+        }
+    }
+}
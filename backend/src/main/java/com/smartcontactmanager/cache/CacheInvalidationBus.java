@@ -0,0 +1,155 @@
+package com.smartcontactmanager.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-process caches of all instances coherent
+ * Services publish the keys their writes make stale; listeners of that cache on this instance hear
+ * about it once the transaction commits, and listeners on the other instances when the invalidation
+ * arrives through the InvalidationTransport (cache.invalidation.backend, see CacheInvalidationConfig).
+ * Time from publish to arrival on another instance is recorded as cache.invalidation.latency; it
+ * compares clocks of two machines, so it is only as accurate as their clock sync.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    // Cache names
+    public static final String USERS = "users";
+    public static final String CONTACTS = "contacts";
+    public static final String IMAGES = "images";
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    /**
+     * Evicts stale keys of one cache
+     * Called on the publishing thread for local invalidations and on a transport thread for remote ones.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param key The stale key
+         * @param remote Whether the write happened on another instance
+         */
+        void invalidate(String key, boolean remote);
+    }
+
+    @Autowired
+    private InvalidationTransport transport;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Tells this instance's own invalidations apart when the transport delivers them back
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ConcurrentHashMap<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    private Counter sentCounter;
+    private Counter receivedCounter;
+    private Timer latencyTimer;
+
+    @PostConstruct
+    public void start() {
+        sentCounter = messageCounter("sent");
+        receivedCounter = messageCounter("received");
+        latencyTimer = Timer.builder("cache.invalidation.latency")
+                .description("Time from publishing a cache invalidation to its arrival on another instance")
+                .tag("backend", transport.getName())
+                .register(meterRegistry);
+        transport.start(this::receive);
+    }
+
+    private Counter messageCounter(String direction) {
+        return Counter.builder("cache.invalidation.messages")
+                .description("Cache invalidations sent to and received from other instances")
+                .tag("backend", transport.getName())
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        transport.stop();
+    }
+
+    /**
+     * Listen to the invalidations of a cache
+     * @param cache Cache name, e.g. USERS
+     */
+    public void subscribe(String cache, Listener listener) {
+        listeners.computeIfAbsent(cache, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Publish a stale key
+     * Inside a transaction the invalidation waits for the commit (and is dropped on rollback), so a
+     * concurrent read cannot put the old value back in between; outside one it applies right away.
+     * @param cache Cache name, e.g. USERS
+     * @param key The stale key
+     */
+    public void publish(String cache, String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifyListeners(cache, key, false);
+            send(cache, key);
+            return;
+        }
+        if (transport.isTransactional()) {
+            // Written with the transaction's own changes
+            send(cache, key);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifyListeners(cache, key, false);
+                if (!transport.isTransactional()) {
+                    send(cache, key);
+                }
+            }
+        });
+    }
+
+    private void send(String cache, String key) {
+        transport.send(new CacheInvalidation(instanceId, cache, key, System.currentTimeMillis()));
+        sentCounter.increment();
+    }
+
+    private void receive(CacheInvalidation invalidation) {
+        if (instanceId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        latencyTimer.record(Math.max(0, System.currentTimeMillis() - invalidation.getPublishedAt()),
+                TimeUnit.MILLISECONDS);
+        receivedCounter.increment();
+        notifyListeners(invalidation.getCache(), invalidation.getKey(), true);
+    }
+
+    private void notifyListeners(String cache, String key, boolean remote) {
+        List<Listener> cacheListeners = listeners.get(cache);
+        if (cacheListeners == null) {
+            return;
+        }
+        for (Listener listener : cacheListeners) {
+            try {
+                listener.invalidate(key, remote);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation listener failed for " + cache + " " + key + ": " + e.getMessage());
+            }
+        }
+    }
+}
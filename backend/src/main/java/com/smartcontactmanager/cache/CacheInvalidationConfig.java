@@ -0,0 +1,59 @@
+package com.smartcontactmanager.cache;
+
+import com.smartcontactmanager.config.BackgroundThreads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Selects how cache invalidations reach the other instances
+ * (cache.invalidation.backend = local | redis | outbox)
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Value("${cache.invalidation.backend:local}")
+    private String backend;
+
+    @Value("${cache.invalidation.redis.url:}")
+    private String redisUrl;
+
+    @Value("${cache.invalidation.redis.channel:contacts:cache-invalidation}")
+    private String redisChannel;
+
+    @Value("${cache.invalidation.redis.request-queue-size:10000}")
+    private int redisRequestQueueSize;
+
+    @Value("${cache.invalidation.outbox.poll-ms:250}")
+    private long outboxPollMs;
+
+    @Value("${cache.invalidation.outbox.lookback-ms:10000}")
+    private long outboxLookbackMs;
+
+    @Value("${cache.invalidation.outbox.retention-ms:600000}")
+    private long outboxRetentionMs;
+
+    @Bean
+    public InvalidationTransport invalidationTransport(JdbcTemplate jdbcTemplate) {
+        if ("redis".equalsIgnoreCase(backend)) {
+            if (redisUrl.isEmpty()) {
+                throw new IllegalStateException("cache.invalidation.redis.url is required for the redis backend");
+            }
+            return new RedisInvalidationTransport(redisUrl, redisChannel, redisRequestQueueSize);
+        }
+        if ("outbox".equalsIgnoreCase(backend)) {
+            return new OutboxInvalidationTransport(jdbcTemplate,
+                    backgroundThreads.newThreadFactory("cache-invalidation-"),
+                    outboxPollMs, outboxLookbackMs, outboxRetentionMs);
+        }
+        if (!"local".equalsIgnoreCase(backend)) {
+            throw new IllegalStateException("Unknown cache.invalidation.backend: " + backend);
+        }
+        return new LocalInvalidationTransport();
+    }
+}
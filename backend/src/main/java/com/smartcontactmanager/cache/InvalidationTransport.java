@@ -0,0 +1,37 @@
+package com.smartcontactmanager.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries cache invalidations between the instances of the application
+ * Delivery is at least once per instance for the outbox and at most once for Redis pub/sub,
+ * which loses messages while an instance is disconnected; caches keep a time to live as a backstop.
+ * Every instance also receives its own invalidations, CacheInvalidationBus skips them.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Name used as the backend tag of the cache.invalidation metrics
+     */
+    String getName();
+
+    /**
+     * Whether send must be called inside the transaction of the write, so the invalidation
+     * commits or rolls back with it; otherwise it is called after the commit
+     */
+    boolean isTransactional();
+
+    /**
+     * Send an invalidation to every instance
+     * Must not block on other instances; may be called from request threads.
+     */
+    void send(CacheInvalidation invalidation);
+
+    /**
+     * Start delivering invalidations, from every instance including this one
+     * @param receiver Called for each invalidation, possibly from a transport thread
+     */
+    void start(Consumer<CacheInvalidation> receiver);
+
+    void stop();
+}
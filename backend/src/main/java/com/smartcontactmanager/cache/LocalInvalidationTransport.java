@@ -0,0 +1,42 @@
+package com.smartcontactmanager.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM transport, for a single instance
+ * Delivers on the sending thread to every bus started on it, so several buses sharing one
+ * instance stand in for several application instances in benchmarks and checks.
+ */
+public class LocalInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<CacheInvalidation>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    @Override
+    public void send(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> receiver : receivers) {
+            receiver.accept(invalidation);
+        }
+    }
+
+    @Override
+    public void start(Consumer<CacheInvalidation> receiver) {
+        receivers.add(receiver);
+    }
+
+    @Override
+    public void stop() {
+        receivers.clear();
+    }
+}
@@ -0,0 +1,155 @@
+package com.smartcontactmanager.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Database outbox transport
+ * Invalidations are rows of cache_invalidations inserted in the transaction of the write, so they
+ * exist exactly when the write committed, and every instance polls the table for new ids. No
+ * infrastructure beyond the database, at the cost of one insert per write and up to poll-ms latency.
+ *
+ * Auto-increment ids are assigned at insert but become visible at commit, so a row can appear below
+ * ids already read. Ids skipped over are remembered for lookback-ms and polled again until they
+ * show up (rolled back inserts never do). Rows older than retention-ms are deleted.
+ */
+public class OutboxInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxInvalidationTransport.class);
+
+    // Bounds the IN list of a poll; more ids skipped at once than this are not waited for
+    private static final int MAX_PENDING_IDS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadFactory threadFactory;
+    private final long pollMs;
+    private final long lookbackMs;
+    private final long retentionMs;
+
+    private ScheduledExecutorService poller;
+    private Consumer<CacheInvalidation> receiver;
+
+    // Only touched by the poller thread
+    private long lastId;
+    // Ids below lastId not seen yet, with when they were first missed, oldest first
+    private final Map<Long, Long> pendingIds = new LinkedHashMap<>();
+    private long lastPrune;
+
+    /**
+     * @param jdbcTemplate Template on the application's DataSource, so inserts join the write's transaction
+     * @param threadFactory Factory for the poller thread
+     * @param pollMs Delay between polls
+     * @param lookbackMs How long a skipped id is waited for; longer than any write transaction
+     * @param retentionMs How long rows are kept
+     */
+    public OutboxInvalidationTransport(JdbcTemplate jdbcTemplate, ThreadFactory threadFactory,
+                                       long pollMs, long lookbackMs, long retentionMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.threadFactory = threadFactory;
+        this.pollMs = pollMs;
+        this.lookbackMs = lookbackMs;
+        this.retentionMs = retentionMs;
+    }
+
+    @Override
+    public String getName() {
+        return "outbox";
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+
+    @Override
+    public void send(CacheInvalidation invalidation) {
+        jdbcTemplate.update(
+                "INSERT INTO cache_invalidations (origin, cache_name, cache_key, published_at) VALUES (?, ?, ?, ?)",
+                invalidation.getOrigin(), invalidation.getCache(), invalidation.getKey(),
+                invalidation.getPublishedAt());
+    }
+
+    @Override
+    public void start(Consumer<CacheInvalidation> receiver) {
+        this.receiver = receiver;
+        // Only invalidations made from now on matter, this instance's caches are empty
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cache_invalidations", Long.class);
+        lastId = maxId != null ? maxId : 0;
+        lastPrune = System.currentTimeMillis();
+        poller = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        poller.scheduleWithFixedDelay(this::pollQuietly, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            // The next poll retries from the same position
+            log.warn("Cache invalidation poll failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deliver the rows committed since the last poll
+     */
+    void poll() {
+        long now = System.currentTimeMillis();
+        expirePendingIds(now);
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, origin, cache_name, cache_key, published_at FROM cache_invalidations WHERE id > ?");
+        args.add(lastId);
+        if (!pendingIds.isEmpty()) {
+            sql.append(" OR id IN (").append(String.join(", ", Collections.nCopies(pendingIds.size(), "?"))).append(')');
+            args.addAll(pendingIds.keySet());
+        }
+        sql.append(" ORDER BY id");
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            long id = rs.getLong("id");
+            if (id > lastId) {
+                for (long skipped = lastId + 1; skipped < id && pendingIds.size() < MAX_PENDING_IDS; skipped++) {
+                    pendingIds.put(skipped, now);
+                }
+                lastId = id;
+            } else {
+                pendingIds.remove(id);
+            }
+            receiver.accept(new CacheInvalidation(rs.getString("origin"), rs.getString("cache_name"),
+                    rs.getString("cache_key"), rs.getLong("published_at")));
+        }, args.toArray());
+
+        if (now - lastPrune >= retentionMs) {
+            lastPrune = now;
+            jdbcTemplate.update("DELETE FROM cache_invalidations WHERE published_at < ?", now - retentionMs);
+        }
+    }
+
+    private void expirePendingIds(long now) {
+        Iterator<Long> missedAt = pendingIds.values().iterator();
+        while (missedAt.hasNext() && now - missedAt.next() > lookbackMs) {
+            missedAt.remove();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.smartcontactmanager.cache;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Consumer;
+
+/**
+ * Redis pub/sub transport
+ * Each invalidation is one PUBLISH on a channel every instance subscribes to, so it reaches the
+ * others within a network round trip. Publishes are asynchronous; while Redis is unreachable they
+ * queue in the client (up to request-queue-size, then they fail) and the subscription is restored
+ * on reconnect, but messages published meanwhile are not delivered to the disconnected instances.
+ */
+public class RedisInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisInvalidationTransport.class);
+
+    private final RedisClient client;
+    private final String channel;
+
+    private StatefulRedisConnection<String, String> publishConnection;
+    private StatefulRedisPubSubConnection<String, String> subscribeConnection;
+
+    /**
+     * @param url Redis URI, e.g. redis://:password@host:6379
+     * @param channel Pub/sub channel shared by all instances
+     * @param requestQueueSize Publishes to buffer while disconnected
+     */
+    public RedisInvalidationTransport(String url, String channel, int requestQueueSize) {
+        this.client = RedisClient.create(url);
+        this.client.setOptions(ClientOptions.builder().requestQueueSize(requestQueueSize).build());
+        this.channel = channel;
+    }
+
+    @Override
+    public String getName() {
+        return "redis";
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return false;
+    }
+
+    @Override
+    public void send(CacheInvalidation invalidation) {
+        publishConnection.async().publish(channel, invalidation.encode()).exceptionally(e -> {
+            log.warn("Cache invalidation not published: " + e.getMessage());
+            return null;
+        });
+    }
+
+    @Override
+    public void start(Consumer<CacheInvalidation> receiver) {
+        subscribeConnection = client.connectPubSub();
+        subscribeConnection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String messageChannel, String message) {
+                try {
+                    receiver.accept(CacheInvalidation.decode(message));
+                } catch (RuntimeException e) {
+                    log.warn("Cache invalidation ignored: " + e.getMessage());
+                }
+            }
+        });
+        subscribeConnection.sync().subscribe(channel);
+        publishConnection = client.connect();
+    }
+
+    @Override
+    public void stop() {
+        if (subscribeConnection != null) {
+            subscribeConnection.close();
+        }
+        if (publishConnection != null) {
+            publishConnection.close();
+        }
+        client.shutdown();
+    }
+}
@@ -0,0 +1,46 @@
+package com.smartcontactmanager.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads of the application's background workers
+ * With spring.threads.virtual.enabled=true on a Java 21+ runtime (the virtual-threads profile)
+ * workers run on virtual threads like request handling does, otherwise on daemon platform threads.
+ */
+@Component
+public class BackgroundThreads {
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * Check whether virtual threads are in use
+     */
+    public boolean isVirtual() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * Get a thread factory for a worker
+     * @param namePrefix Thread name prefix, a counter is appended
+     * @return A factory for daemon threads
+     */
+    public ThreadFactory newThreadFactory(String namePrefix) {
+        if (isVirtual()) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.smartcontactmanager.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills an empty database with synthetic users and contacts for load tests (loadtest profile)
+ * Users are user1..userN@loadtest.local plus admin@loadtest.local, all sharing one password.
+ * Contact names, emails and phones come from fixed word lists with a fixed seed, so the same
+ * settings always produce the same data and search keywords hit a predictable share of rows.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+
+    // Search keywords used by the load driver come from these lists
+    public static final String[] FIRST_NAMES = {"Alice", "Bob", "Carol", "David", "Erin", "Frank", "Grace", "Heidi",
+            "Ivan", "Judy", "Mallory", "Niaj", "Olivia", "Peggy", "Rupert", "Sybil", "Trent", "Victor", "Walter", "Zoe"};
+    public static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Martin", "Lee", "Walker", "Hall"};
+    private static final String[] TOPICS = {"conference", "client meeting", "referral", "old colleague",
+            "supplier", "neighbour", "university", "gym"};
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${loadtest.data.users:100}")
+    private int users;
+
+    @Value("${loadtest.data.contacts-per-user:50}")
+    private int contactsPerUser;
+
+    @Value("${loadtest.data.password:loadtest123}")
+    private String password;
+
+    @Value("${loadtest.data.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Database already has {} users, skipping load test data", existing);
+            return;
+        }
+        long start = System.currentTimeMillis();
+
+        // BCrypt is deliberately slow, so every user gets the same hash
+        String passwordHash = passwordEncoder.encode(password);
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)",
+                "Load Test Admin", "admin@loadtest.local", passwordHash, "ROLE_ADMIN");
+
+        List<Object[]> userRows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= users; i++) {
+            userRows.add(new Object[]{"Load Test User " + i, "user" + i + "@loadtest.local", passwordHash, "ROLE_USER"});
+            if (userRows.size() == BATCH_SIZE || i == users) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)", userRows);
+                userRows.clear();
+            }
+        }
+
+        Random random = new Random(seed);
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE role = 'ROLE_USER' ORDER BY id", Long.class);
+        List<Object[]> contactRows = new ArrayList<>(BATCH_SIZE);
+        for (Long userId : userIds) {
+            for (int c = 0; c < contactsPerUser; c++) {
+                contactRows.add(randomContact(random, userId));
+                if (contactRows.size() == BATCH_SIZE) {
+                    insertContacts(contactRows);
+                }
+            }
+        }
+        insertContacts(contactRows);
+
+        log.info("Generated {} users with {} contacts each in {} ms", users, contactsPerUser,
+                System.currentTimeMillis() - start);
+    }
+
+    private Object[] randomContact(Random random, Long userId) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int number = random.nextInt(1_000_000);
+        return new Object[]{
+                first + " " + last,
+                first.toLowerCase() + "." + last.toLowerCase() + number + "@example.com",
+                String.format("+1-555-%07d", number),
+                "Met through " + TOPICS[random.nextInt(TOPICS.length)],
+                userId
+        };
+    }
+
+    private void insertContacts(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO contacts (name, email, phone, description, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+            rows.clear();
+        }
+    }
+}
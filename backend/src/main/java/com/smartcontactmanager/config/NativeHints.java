@@ -0,0 +1,97 @@
+package com.smartcontactmanager.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import com.smartcontactmanager.controller.AdminController;
+import com.smartcontactmanager.controller.AuthController;
+import com.smartcontactmanager.controller.ContactController;
+import com.smartcontactmanager.controller.GlobalExceptionHandler;
+import com.smartcontactmanager.controller.HealthController;
+import com.smartcontactmanager.controller.UserController;
+import com.smartcontactmanager.dto.AuthResponse;
+import com.smartcontactmanager.dto.ContactDTO;
+import com.smartcontactmanager.dto.LoginRequest;
+import com.smartcontactmanager.dto.RegisterRequest;
+import com.smartcontactmanager.dto.UserDTO;
+import com.smartcontactmanager.entity.Contact;
+import com.smartcontactmanager.entity.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection and resource hints for the native image (native Maven profile)
+ * Spring's AOT processing covers beans, JPA entities as managed types and the declared parameter
+ * types of controller methods, but not what is only reached by reflection at runtime: response
+ * bodies behind ResponseEntity<?> (the DTOs and the controllers' nested response classes), the
+ * entities as Jackson types, the JJWT implementation classes that jjwt-api loads by name, the
+ * SpEL root of @PreAuthorize expressions, the access log's appender in logback-spring.xml and the
+ * database specific Flyway migrations.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    // Loaded by name from jjwt-api (Jwts, Jwks, Keys) since jjwt-impl is only a runtime dependency
+    private static final String[] JJWT_IMPL_CLASSES = {
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            // Found through META-INF/services by jjwt-impl
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    // Root objects @PreAuthorize expressions such as hasAuthority(...) are evaluated against
+    private static final String[] SECURITY_EXPRESSION_ROOTS = {
+            "org.springframework.security.access.expression.SecurityExpressionRoot",
+            "org.springframework.security.access.expression.method.MethodSecurityExpressionRoot",
+            "org.springframework.security.authorization.method.MethodSecurityExpressionRoot"
+    };
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingHints.registerReflectionHints(hints.reflection(),
+                AuthResponse.class, ContactDTO.class, LoginRequest.class, RegisterRequest.class, UserDTO.class,
+                Contact.class, User.class);
+
+        // ErrorResponse, SuccessResponse...: private, so only reachable through their controller
+        for (Class<?> controller : new Class<?>[] {AdminController.class, AuthController.class,
+                ContactController.class, GlobalExceptionHandler.class, HealthController.class, UserController.class}) {
+            bindingHints.registerReflectionHints(hints.reflection(), controller.getDeclaredClasses());
+        }
+
+        for (String className : JJWT_IMPL_CLASSES) {
+            hints.reflection().registerType(TypeReference.of(className),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        for (String className : SECURITY_EXPRESSION_ROOTS) {
+            hints.reflection().registerTypeIfPresent(classLoader, className,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // Spring Boot covers the console and file appenders, not the access log's queue
+        hints.reflection().registerType(AsyncAppender.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // Spring Boot only registers the default db/migration location
+        hints.resources().registerPattern("db/vendor/*/*.sql");
+    }
+}
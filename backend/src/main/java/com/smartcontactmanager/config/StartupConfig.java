@@ -0,0 +1,42 @@
+package com.smartcontactmanager.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Beans kept eager when spring.main.lazy-initialization is on (the fast-startup profile)
+ * The entity manager factory and the security filter chain are built at boot so the first request
+ * does not pay for the Hibernate metamodel and the security configuration, and so are the beans
+ * with @Scheduled methods, because a lazy one would never be created and its jobs would silently
+ * not run. Flyway is already eager.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return (beanName, beanDefinition, beanType) ->
+                EntityManagerFactory.class.isAssignableFrom(beanType)
+                        || AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType)
+                        || Filter.class.isAssignableFrom(beanType)
+                        || SecurityFilterChain.class.isAssignableFrom(beanType)
+                        || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        // Only the application's own beans have jobs; scanning every framework bean slows startup
+        if (!beanType.getName().startsWith("com.smartcontactmanager.")) {
+            return false;
+        }
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Scheduled>)
+                method -> AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
@@ -0,0 +1,100 @@
+package com.smartcontactmanager.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs how long startup took and which steps took longest
+ * The steps (bean creation, configuration parsing, context refresh...) are recorded by the
+ * BufferingApplicationStartup set in SmartContactManagerApplication. Each step is ranked by its self
+ * time, its own duration minus that of its sub-steps, so a bean is not blamed for the beans it
+ * depends on. Above startup.report.budget-ms the report is a warning, so a regression shows up in
+ * the deploy logs; the total is also the application.ready.time metric.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    @Value("${startup.report.steps:10}")
+    private int steps;
+
+    @Value("${startup.report.budget-ms:0}")
+    private long budgetMs;
+
+    @EventListener
+    public void report(ApplicationReadyEvent event) {
+        Duration timeTaken = event.getTimeTaken();
+        StringBuilder report = new StringBuilder("Ready in ").append(timeTaken.toMillis()).append(" ms");
+        if (budgetMs > 0) {
+            report.append(" (budget ").append(budgetMs).append(" ms)");
+        }
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (startup instanceof BufferingApplicationStartup buffering && steps > 0) {
+            report.append(", slowest startup steps (self time):");
+            for (StepTime step : slowestSteps(buffering.drainBufferedTimeline(), steps)) {
+                report.append(String.format("%n  %6d ms  %s", step.selfNanos / 1_000_000, step.description));
+            }
+            // Beans created lazily later are not part of startup
+            buffering.addFilter(step -> false);
+        }
+
+        if (budgetMs > 0 && timeTaken.toMillis() > budgetMs) {
+            log.warn(report.toString());
+        } else {
+            log.info(report.toString());
+        }
+    }
+
+    private static List<StepTime> slowestSteps(StartupTimeline timeline, int limit) {
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+        Map<Long, Long> childNanos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                childNanos.merge(parentId, event.getDuration().toNanos(), Long::sum);
+            }
+        }
+        return events.stream()
+                .map(event -> new StepTime(describe(event.getStartupStep()),
+                        event.getDuration().toNanos() - childNanos.getOrDefault(event.getStartupStep().getId(), 0L)))
+                .sorted(Comparator.comparingLong((StepTime step) -> step.selfNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static String describe(StartupStep step) {
+        StringBuilder description = new StringBuilder(step.getName());
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName") || tag.getKey().equals("postProcessor")) {
+                description.append(' ').append(tag.getValue());
+            }
+        }
+        return description.toString();
+    }
+
+    private static class StepTime {
+        private final String description;
+        private final long selfNanos;
+
+        StepTime(String description, long selfNanos) {
+            this.description = description;
+            this.selfNanos = selfNanos;
+        }
+    }
+}
@@ -1,18 +1,30 @@
 package com.smartcontactmanager.controller;
 
-import com.smartcontactmanager.dto.ContactDTO;
 import com.smartcontactmanager.dto.UserDTO;
-import com.smartcontactmanager.entity.Contact;
 import com.smartcontactmanager.entity.User;
+import com.smartcontactmanager.service.ContactJsonWriter;
 import com.smartcontactmanager.service.ContactService;
+import com.smartcontactmanager.service.ImageCache;
+import com.smartcontactmanager.service.OrphanImageCollector;
+import com.smartcontactmanager.service.StorageMigrationService;
 import com.smartcontactmanager.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -30,21 +42,41 @@ public class AdminController {
     @Autowired
     private ContactService contactService;
 
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    @Autowired
+    private ImageCache imageCache;
+
+    @Autowired
+    private StorageMigrationService storageMigrationService;
+
+    @Autowired
+    private OrphanImageCollector orphanImageCollector;
+
     /**
-     * Get all users
-     * GET /api/admin/users
+     * Get all users with their contacts
+     * GET /api/admin/users?fields=id
+     * fields limits the contact columns read and returned, as for the contact list (id is always
+     * included); the contacts of all users are read with one query.
      */
     @GetMapping("/users")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String fields) {
+        Set<ContactJsonWriter.Field> selected;
+        try {
+            selected = ContactJsonWriter.Field.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
         try {
             List<User> users = userService.getAllUsers();
+            Map<Long, List<Map<String, Object>>> contactsByUser = contactService.getAllContactsByUser(selected);
             List<UserDTO> userDTOs = users.stream()
                     .map(user -> {
                         UserDTO dto = new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getRole(), user.getImagePath());
-                        // Get contacts for each user
-                        List<ContactDTO> contacts = contactService.getAllContactsByUserId(user.getId());
-                        dto.setContacts(contacts);
+                        dto.setContacts(contactsByUser.getOrDefault(user.getId(), List.of()));
                         return dto;
                     })
                     .collect(Collectors.toList());
@@ -73,20 +105,95 @@ public class AdminController {
 
     /**
      * Get contacts of a specific user
-     * GET /api/admin/users/{userId}/contacts
+     * GET /api/admin/users/{userId}/contacts?fields=name,phone
+     * The array is streamed from the database cursor into the response, as JSON, CBOR or Smile
+     * depending on the Accept header. fields limits the columns read and written (id is always included).
      */
     @GetMapping("/users/{userId}/contacts")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<?> getUserContacts(@PathVariable Long userId) {
+    public ResponseEntity<?> getUserContacts(@PathVariable Long userId,
+                                             @RequestParam(required = false) String fields,
+                                             HttpServletRequest request,
+                                             HttpServletResponse response) throws IOException {
+        MediaType mediaType = contactMediaType(request);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
         try {
-            List<ContactDTO> contacts = contactService.getAllContactsByUserId(userId);
-            return ResponseEntity.ok(contacts);
-        } catch (Exception e) {
+            Set<ContactJsonWriter.Field> selected = ContactJsonWriter.Field.parse(fields);
+            response.setContentType(mediaType.toString());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            contactService.writeAllContactsByUserId(userId, selected, mediaType, response.getOutputStream());
+            return null;
+        } catch (RuntimeException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.resetBuffer();
+            response.setContentType(null);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    /**
+     * Get hot image cache statistics
+     * GET /api/admin/image-cache
+     */
+    @GetMapping("/image-cache")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> getImageCacheStats() {
+        return ResponseEntity.ok(imageCache.getStats());
+    }
+
+    /**
+     * Get orphan image collector statistics (files and bytes reclaimed)
+     * GET /api/admin/storage/gc
+     */
+    @GetMapping("/storage/gc")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> getOrphanImageStats() {
+        return ResponseEntity.ok(orphanImageCollector.getStats());
+    }
+
+    /**
+     * Start moving images from older storage layouts into the active image store
+     * POST /api/admin/storage/migration
+     */
+    @PostMapping("/storage/migration")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> startStorageMigration() {
+        if (!storageMigrationService.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Storage migration is already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(storageMigrationService.getStatus());
+    }
+
+    /**
+     * Get storage migration progress
+     * GET /api/admin/storage/migration
+     */
+    @GetMapping("/storage/migration")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<?> getStorageMigrationStatus() {
+        return ResponseEntity.ok(storageMigrationService.getStatus());
+    }
+
+    /**
+     * Pick JSON, CBOR or Smile for a streamed contact list from the Accept header
+     * @return The media type, or null when the client accepts none of them
+     */
+    private MediaType contactMediaType(HttpServletRequest request) {
+        try {
+            return ContactJsonWriter.negotiate(
+                    contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // Unparseable Accept header
+            return null;
+        }
+    }
+
     /**
      * Error response class
      */
@@ -2,15 +2,30 @@ package com.smartcontactmanager.controller;
 
 import com.smartcontactmanager.dto.ContactDTO;
 import com.smartcontactmanager.security.CustomUserDetails;
+import com.smartcontactmanager.service.ContactChangeBus;
+import com.smartcontactmanager.service.ContactChangeEvent;
+import com.smartcontactmanager.service.ContactJsonWriter;
 import com.smartcontactmanager.service.ContactService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Contact Controller
@@ -24,6 +39,16 @@ public class ContactController {
     @Autowired
     private ContactService contactService;
 
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    @Autowired
+    private ContactChangeBus contactChangeBus;
+
+    // Clients reconnect when a stream ends, so this only bounds how long a dead connection can linger
+    @Value("${contacts.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
 
     /**
      * Create a new contact
@@ -82,15 +107,33 @@ public class ContactController {
 
     /**
      * Get all contacts for current user
-     * GET /api/contacts
+     * GET /api/contacts?fields=name,phone
+     * The array is streamed from the database cursor into the response, as JSON, CBOR or Smile
+     * depending on the Accept header. fields limits the columns read and written (id is always included).
      */
     @GetMapping
-    public ResponseEntity<?> getAllContacts(Authentication authentication) {
+    public ResponseEntity<?> getAllContacts(@RequestParam(required = false) String fields,
+                                            Authentication authentication, HttpServletRequest request,
+                                            HttpServletResponse response) throws IOException {
+        MediaType mediaType = contactMediaType(request);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
         try {
             Long userId = getUserIdFromAuth(authentication);
-            List<ContactDTO> contacts = contactService.getAllContacts(userId);
-            return ResponseEntity.ok(contacts);
-        } catch (Exception e) {
+            Set<ContactJsonWriter.Field> selected = ContactJsonWriter.Field.parse(fields);
+            response.setContentType(mediaType.toString());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            contactService.writeAllContacts(userId, selected, mediaType, response.getOutputStream());
+            return null;
+        } catch (RuntimeException e) {
+            if (response.isCommitted()) {
+                // Part of the array is already on the wire, abort the response instead
+                throw e;
+            }
+            // Drop the part of the array still in the buffer so the error is the whole body
+            response.resetBuffer();
+            response.setContentType(null);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
         }
@@ -98,21 +141,81 @@ public class ContactController {
 
     /**
      * Search contacts
-     * GET /api/contacts/search?keyword=...
+     * GET /api/contacts/search?keyword=...&page=0&size=50&fields=name,phone
+     * The body is the requested page (JSON, CBOR or Smile); X-Has-Next tells whether another page follows.
+     * The page is buffered because the header can only be set once the page has been read.
      */
     @GetMapping("/search")
     public ResponseEntity<?> searchContacts(@RequestParam String keyword,
-                                           Authentication authentication) {
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "50") int size,
+                                           @RequestParam(required = false) String fields,
+                                           Authentication authentication,
+                                           HttpServletRequest request,
+                                           HttpServletResponse response) throws IOException {
+        MediaType mediaType = contactMediaType(request);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
         try {
             Long userId = getUserIdFromAuth(authentication);
-            List<ContactDTO> contacts = contactService.searchContacts(userId, keyword);
-            return ResponseEntity.ok(contacts);
-        } catch (Exception e) {
+            FastByteArrayOutputStream body = new FastByteArrayOutputStream();
+            boolean hasNext = contactService.writeSearchContacts(userId, keyword, page, size,
+                    ContactJsonWriter.Field.parse(fields), mediaType, body);
+            response.setHeader("X-Has-Next", String.valueOf(hasNext));
+            response.setContentType(mediaType.toString());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            response.setContentLength(body.size());
+            body.writeTo(response.getOutputStream());
+            return null;
+        } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
         }
     }
 
+    /**
+     * Stream changes to the current user's contacts
+     * GET /api/contacts/stream
+     * Server-Sent Events, sent after the change has committed: created and updated carry the contact,
+     * deleted carries {"id": ...}, and resync means changes were dropped (the client fell behind)
+     * and the list should be reloaded. Changes made while disconnected are not replayed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamContacts(Authentication authentication) throws IOException {
+        Long userId = getUserIdFromAuth(authentication);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        ContactChangeBus.Subscription subscription = contactChangeBus.subscribe(userId, new SseSink(emitter));
+        if (subscription == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        emitter.onCompletion(() -> contactChangeBus.unsubscribe(subscription));
+        emitter.onError(e -> contactChangeBus.unsubscribe(subscription));
+        emitter.onTimeout(emitter::complete);
+        // Held until the response starts, then sent with the headers instead of waiting for the first change
+        emitter.send(SseEmitter.event().comment("connected"));
+        return ResponseEntity.ok()
+                // Stops nginx style proxies from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * Pick JSON, CBOR or Smile for a streamed contact list from the Accept header
+     * @return The media type, or null when the client accepts none of them
+     */
+    private MediaType contactMediaType(HttpServletRequest request) {
+        try {
+            return ContactJsonWriter.negotiate(
+                    contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // Unparseable Accept header
+            return null;
+        }
+    }
+
     /**
      * Helper method to get user ID from authentication
      */
@@ -126,6 +229,36 @@ public class ContactController {
         return contactService.getUserIdByEmail(email);
     }
 
+    /**
+     * Writes a change stream subscription's events to its SSE response
+     */
+    private static class SseSink implements ContactChangeBus.Sink {
+        private final SseEmitter emitter;
+
+        SseSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(ContactChangeEvent event) throws IOException {
+            Object data = event.getContact() != null ? event.getContact() : Map.of("id", event.getContactId());
+            emitter.send(SseEmitter.event()
+                    .name(event.getType().eventName())
+                    .data(data, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void resync() throws IOException {
+            // EventSource ignores events without data
+            emitter.send(SseEmitter.event().name("resync").data(Map.of(), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
     /**
      * Error response class
      */
@@ -4,18 +4,29 @@ import com.smartcontactmanager.dto.UserDTO;
 import com.smartcontactmanager.entity.User;
 import com.smartcontactmanager.security.CustomUserDetails;
 import com.smartcontactmanager.service.FileStorageService;
+import com.smartcontactmanager.service.ImageCache;
+import com.smartcontactmanager.service.ImageVariantService;
 import com.smartcontactmanager.service.UserService;
+import com.smartcontactmanager.storage.StoredObject;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * User Controller
@@ -26,12 +37,28 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
 public class UserController {
 
+    // Request attributes understood by Tomcat's sendfile support
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    // Content-addressed images never change under the same URL
+    private static final CacheControl IMMUTABLE_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private ImageCache imageCache;
+
     /**
      * Get current user profile
      * GET /api/user/profile
@@ -59,7 +86,7 @@ public class UserController {
 
     /**
      * Upload user profile image
-     * POST /api/user/profile/image
+     * POST /api/user/profile/image (multipart/form-data, field "file")
      */
     @PostMapping("/profile/image")
     public ResponseEntity<?> uploadProfileImage(
@@ -68,27 +95,39 @@ public class UserController {
         try {
             Long userId = getUserIdFromAuth(authentication);
             
-            // Delete old image if exists
-            User user = userService.getCurrentUser(userId);
-            if (user.getImagePath() != null && !user.getImagePath().isEmpty()) {
-                fileStorageService.deleteFile(user.getImagePath());
-            }
-            
             // Store new image
             String imagePath = fileStorageService.storeFile(file, userId);
             
-            // Update user with new image path
-            User updatedUser = userService.updateUserImage(userId, imagePath);
+            return ResponseEntity.ok(completeImageUpload(userId, imagePath));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to upload image: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Upload user profile image as the raw request body
+     * POST /api/user/profile/image (Content-Type: image/*)
+     * The body is streamed straight to disk instead of being parsed as multipart first
+     */
+    @PostMapping(value = "/profile/image", consumes = "image/*")
+    public ResponseEntity<?> uploadProfileImageStream(HttpServletRequest request,
+                                                      Authentication authentication) {
+        try {
+            Long userId = getUserIdFromAuth(authentication);
             
-            // Extract filename from path (e.g., "uploads/123_1234567890.jpg" -> "123_1234567890.jpg")
-            String filename = imagePath.contains("/") ? imagePath.substring(imagePath.lastIndexOf("/") + 1) : imagePath;
+            // Reject oversized uploads before reading the body when the client declares a length
+            if (request.getContentLengthLong() > FileStorageService.MAX_FILE_SIZE) {
+                throw new RuntimeException("File size exceeds 5MB limit");
+            }
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Image uploaded successfully");
-            response.put("imagePath", updatedUser.getImagePath());
-            response.put("imageUrl", "/api/user/images/" + filename);
+            // Store new image
+            String imagePath = fileStorageService.storeStream(request.getInputStream(), userId);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(completeImageUpload(userId, imagePath));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
@@ -98,42 +137,140 @@ public class UserController {
         }
     }
 
+    /**
+     * Helper method to point the user at a newly stored image
+     * @return The upload response body
+     */
+    private Map<String, Object> completeImageUpload(Long userId, String imagePath) {
+        // Update user with new image path
+        User updatedUser = userService.updateUserImage(userId, imagePath);
+        
+        // The replaced image is not deleted here: identical uploads share one file, and another
+        // user's upload may be about to reference it without having committed yet. The
+        // OrphanImageCollector removes it once it is unreferenced and past the grace period.
+        
+        // Extract filename from path (e.g., "uploads/<hash>.jpg" -> "<hash>.jpg")
+        String filename = imagePath.contains("/") ? imagePath.substring(imagePath.lastIndexOf("/") + 1) : imagePath;
+        
+        // Resized variants are generated in the background, the upload returns right away
+        imageVariantService.generateVariantsAsync(filename);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Image uploaded successfully");
+        response.put("imagePath", updatedUser.getImagePath());
+        response.put("imageUrl", "/api/user/images/" + filename);
+        return response;
+    }
+
     /**
      * Serve uploaded images
-     * GET /api/user/images/{filename}
+     * GET/HEAD /api/user/images/{filename}
+     * The file is never loaded onto the heap as a whole: small hot images are served from an
+     * off-heap cache, other full responses go out through Tomcat's sendfile when the connector
+     * supports it, otherwise (and for Range requests) they are streamed.
+     * Content-addressed images are immutable, so they carry a strong ETag and a one year
+     * Cache-Control, and a matching If-None-Match is answered with 304 without touching the file.
+     * With ?size= the closest resized variant is served; until it has been generated the
+     * original is sent with a short-lived Cache-Control so clients pick up the variant later.
      */
-    @GetMapping("/images/{filename:.+}")
-    public ResponseEntity<?> getImage(@PathVariable String filename) {
+    @RequestMapping(value = "/images/{filename:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public ResponseEntity<?> getImage(@PathVariable String filename,
+                                      @RequestParam(required = false) Integer size,
+                                      HttpServletRequest request) {
         try {
-            Path imagePath = fileStorageService.getFilePath(filename);
-            if (!java.nio.file.Files.exists(imagePath)) {
+            String variant = size != null ? fileStorageService.getVariantFilename(filename, size) : null;
+            String servedName = variant != null ? variant : filename;
+            boolean head = HttpMethod.HEAD.matches(request.getMethod());
+
+            String etag = fileStorageService.getETag(servedName);
+            if (etag != null && new ServletWebRequest(request).checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(IMMUTABLE_CACHE_CONTROL)
+                        .build();
+            }
+
+            // Hot images are answered from memory without touching the filesystem
+            ImageCache.CachedImage cached = imageCache.get(servedName);
+            if (cached != null) {
+                ResponseEntity.BodyBuilder response = imageResponse(servedName, etag, cached.getLastModified(), false);
+                return head
+                        ? response.contentLength(cached.size()).build()
+                        : response.body(cached.asResource(servedName));
+            }
+
+            StoredObject stored = fileStorageService.stat(servedName);
+            boolean variantPending = false;
+            if (stored == null && variant != null) {
+                // Variant not generated yet: queue it and fall back to the original
+                imageVariantService.generateVariantsAsync(filename);
+                variantPending = true;
+                servedName = filename;
+                etag = fileStorageService.getETag(servedName);
+                stored = fileStorageService.stat(servedName);
+            }
+            if (stored == null) {
                 return ResponseEntity.notFound().build();
             }
-            
-            byte[] imageBytes = java.nio.file.Files.readAllBytes(imagePath);
-            String contentType = java.nio.file.Files.probeContentType(imagePath);
-            if (contentType == null) {
-                // Try to determine content type from extension
-                if (filename.toLowerCase().endsWith(".png")) {
-                    contentType = "image/png";
-                } else if (filename.toLowerCase().endsWith(".gif")) {
-                    contentType = "image/gif";
-                } else if (filename.toLowerCase().endsWith(".webp")) {
-                    contentType = "image/webp";
-                } else {
-                    contentType = "image/jpeg";
-                }
+
+            ResponseEntity.BodyBuilder response = imageResponse(servedName, etag, stored.getLastModified(), variantPending);
+
+            // HEAD only needs the headers, the file is not opened
+            if (head) {
+                return response.contentLength(stored.getSize()).build();
             }
-            
-            return ResponseEntity.ok()
-                    .header("Content-Type", contentType)
-                    .body(imageBytes);
+
+            // Small images are kept off-heap for the next request
+            if (imageCache.accepts(stored.getSize())) {
+                cached = imageCache.load(servedName, fileStorageService.openFile(servedName),
+                        stored.getSize(), stored.getLastModified());
+                return response.body(cached.asResource(servedName));
+            }
+
+            // Images in a remote store are streamed through a fixed-size buffer
+            Path localPath = stored.getLocalPath();
+            if (localPath == null) {
+                return response.body(fileStorageService.getResource(servedName, stored));
+            }
+
+            // Full response: let Tomcat transfer the file straight from the page cache to the socket
+            if (request.getHeader(HttpHeaders.RANGE) == null
+                    && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+                request.setAttribute(SENDFILE_FILENAME_ATTR, localPath.toRealPath().toString());
+                request.setAttribute(SENDFILE_START_ATTR, 0L);
+                request.setAttribute(SENDFILE_END_ATTR, stored.getSize());
+                return response.contentLength(stored.getSize()).build();
+            }
+
+            // Range requests (206) and connectors without sendfile stream through a fixed-size buffer
+            return response.body(new FileSystemResource(localPath));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Failed to load image: " + e.getMessage()));
         }
     }
 
+    /**
+     * Helper method to build the headers shared by all image responses
+     */
+    private ResponseEntity.BodyBuilder imageResponse(String servedName, String etag, long lastModified,
+                                                     boolean variantPending) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileStorageService.getContentType(servedName)))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .lastModified(lastModified);
+        if (variantPending) {
+            // This URL will serve the variant once it exists
+            response.cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS));
+        } else if (etag != null) {
+            response.eTag(etag).cacheControl(IMMUTABLE_CACHE_CONTROL);
+        } else {
+            // Legacy names can be overwritten, so clients must revalidate with If-Modified-Since
+            response.cacheControl(CacheControl.noCache());
+        }
+        return response;
+    }
+
     /**
      * Helper method to get user ID from authentication
      */
@@ -0,0 +1,32 @@
+package com.smartcontactmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks that feed per-request database statistics
+ * Every connection pool is wrapped in a {@link StatsDataSource} (the routing data source, when
+ * a replica is configured, sits in front of the wrapped pools) and Hibernate reports entity loads.
+ */
+@Configuration
+public class DbStatsConfig {
+
+    @Bean
+    public static BeanPostProcessor statsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource ? new StatsDataSource((HikariDataSource) bean) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCounter());
+    }
+}
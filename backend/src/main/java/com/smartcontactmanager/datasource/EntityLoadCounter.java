@@ -0,0 +1,19 @@
+package com.smartcontactmanager.datasource;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Hibernate interceptor that counts loaded entities into {@link RequestDbStats}
+ */
+public class EntityLoadCounter implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            stats.entityLoaded();
+        }
+        return false;
+    }
+}
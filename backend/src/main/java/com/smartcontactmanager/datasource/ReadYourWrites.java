@@ -0,0 +1,57 @@
+package com.smartcontactmanager.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which users wrote recently, so their reads stay on the primary database until
+ * the replica has had time to catch up (read-your-writes)
+ */
+@Component
+public class ReadYourWrites {
+
+    // Expired entries are purged once the map grows past this many users
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    @Value("${spring.datasource.replica.sticky-window-ms:5000}")
+    private long stickyWindowMillis;
+
+    // User ID -> System.nanoTime() until which reads go to the primary
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    /**
+     * Record that a user's write has been committed on the primary
+     */
+    public void markWrite(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (stickyUntil.size() > PURGE_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> until - now < 0);
+        }
+        stickyUntil.put(userId, now + TimeUnit.MILLISECONDS.toNanos(stickyWindowMillis));
+    }
+
+    /**
+     * Check whether a user's reads must go to the primary
+     */
+    public boolean isSticky(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            stickyUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+}
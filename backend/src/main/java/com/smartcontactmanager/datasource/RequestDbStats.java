@@ -0,0 +1,72 @@
+package com.smartcontactmanager.datasource;
+
+/**
+ * Database work done on behalf of one HTTP request
+ * Collected on the request thread while {@link RequestDbStatsFilter} has it open; work on
+ * background threads is not attributed to any request.
+ */
+public class RequestDbStats {
+
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int connections;
+    private long connectionHoldNanos;
+    private int entitiesLoaded;
+
+    /**
+     * Start collecting for the current thread
+     */
+    static RequestDbStats open() {
+        RequestDbStats stats = new RequestDbStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stop collecting for the current thread
+     */
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Statistics of the request running on this thread, or null outside a request
+     */
+    public static RequestDbStats current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void connectionReleased(long heldNanos) {
+        connections++;
+        connectionHoldNanos += heldNanos;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    /** Number of JDBC statements prepared */
+    public int getStatements() {
+        return statements;
+    }
+
+    /** Number of pool connections checked out and returned */
+    public int getConnections() {
+        return connections;
+    }
+
+    /** Total time connections were checked out of the pool */
+    public long getConnectionHoldNanos() {
+        return connectionHoldNanos;
+    }
+
+    /** Number of entities Hibernate materialized */
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartcontactmanager.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects database statistics per HTTP request
+ * Each request's statement count, connection hold time and loaded entities are recorded as
+ * distributions (db.request.*), logged at DEBUG and left in a request attribute for access logging.
+ */
+@Component
+// Just inside logging.AccessLogFilter, which logs the statistics
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestDbStatsFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the finished {@link RequestDbStats} */
+    public static final String STATS_ATTRIBUTE = RequestDbStats.class.getName();
+
+    private static final Logger log = LoggerFactory.getLogger(RequestDbStatsFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary statementsSummary;
+    private DistributionSummary entitiesSummary;
+    private Timer connectionHoldTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        statementsSummary = DistributionSummary.builder("db.request.statements")
+                .description("JDBC statements prepared per HTTP request")
+                .register(meterRegistry);
+        entitiesSummary = DistributionSummary.builder("db.request.entities")
+                .description("Entities loaded per HTTP request")
+                .register(meterRegistry);
+        connectionHoldTimer = Timer.builder("db.request.connection.hold")
+                .description("Time a request held database connections, summed over its connections")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestDbStats stats = RequestDbStats.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDbStats.close();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+            // Requests that never touched the database (images, health checks) are not recorded
+            if (stats.getConnections() > 0) {
+                statementsSummary.record(stats.getStatements());
+                entitiesSummary.record(stats.getEntitiesLoaded());
+                connectionHoldTimer.record(stats.getConnectionHoldNanos(), TimeUnit.NANOSECONDS);
+                if (log.isDebugEnabled()) {
+                    log.debug("{} {}: {} statements, {} connections held {} us, {} entities loaded",
+                            request.getMethod(), request.getRequestURI(), stats.getStatements(),
+                            stats.getConnections(), stats.getConnectionHoldNanos() / 1000, stats.getEntitiesLoaded());
+                }
+            }
+        }
+    }
+}
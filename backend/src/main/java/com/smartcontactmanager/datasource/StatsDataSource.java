@@ -0,0 +1,82 @@
+package com.smartcontactmanager.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Pool wrapper that counts statements and connection hold time into {@link RequestDbStats}
+ * Connections taken outside a request are handed out unwrapped.
+ */
+public class StatsDataSource extends DelegatingDataSource {
+
+    public StatsDataSource(DataSource pool) {
+        super(pool);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private static Connection track(Connection connection) {
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(StatsDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new TrackingHandler(connection, stats));
+    }
+
+    /**
+     * Counts statement creation and records the hold time when the connection goes back to the pool
+     */
+    private static class TrackingHandler implements InvocationHandler {
+        private final Connection target;
+        private final RequestDbStats stats;
+        private final long acquiredNanos = System.nanoTime();
+        private boolean released;
+
+        TrackingHandler(Connection target, RequestDbStats stats) {
+            this.target = target;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement", "prepareCall", "createStatement" -> stats.statementPrepared();
+                case "close" -> {
+                    if (!released) {
+                        released = true;
+                        stats.connectionReleased(System.nanoTime() - acquiredNanos);
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.smartcontactmanager.dto;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for User information
@@ -12,7 +13,8 @@ public class UserDTO {
     private String email;
     private String role;
     private String imagePath;
-    private List<ContactDTO> contacts;
+    // Only the requested contact fields, see ContactJsonWriter.Field
+    private List<Map<String, Object>> contacts;
 
     public UserDTO() {
     }
@@ -64,11 +66,11 @@ public class UserDTO {
         this.role = role;
     }
 
-    public List<ContactDTO> getContacts() {
+    public List<Map<String, Object>> getContacts() {
         return contacts;
     }
 
-    public void setContacts(List<ContactDTO> contacts) {
+    public void setContacts(List<Map<String, Object>> contacts) {
         this.contacts = contacts;
     }
 
@@ -0,0 +1,170 @@
+package com.smartcontactmanager.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that follows latency (a latency gradient, in the spirit of TCP Vegas)
+ * Once per window the average latency of the window is compared with the no-load latency, the
+ * lowest window average seen recently. While it stays within tolerance times the no-load latency
+ * the target is the limit plus its square root (additive increase); above it, the limit scaled by
+ * tolerance * no-load / window latency, but no less than half (multiplicative decrease). The limit
+ * moves a fifth of the way to its target per window. A window in which fewer than half of the
+ * permits were used says nothing about capacity, so the limit is left alone after one.
+ * Under sustained load every window has some queueing, so a no-load latency that was not
+ * confirmed for probe windows is measured again: the limit is halved for two windows, one to drain
+ * the queue and one to measure, and then restored (like BBR's ProbeRTT). This lets the estimate
+ * follow real changes in latency without a standing queue inflating it.
+ * Thread safe: acquire and release are lock free, one thread at a time recomputes the limit.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    // Share of the new limit taken per window
+    private static final double SMOOTHING = 0.2;
+    // Windows after which an unconfirmed no-load latency is probed again
+    private static final int PROBE_WINDOWS = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private volatile double limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Highest in-flight count in the current window
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile long windowStart = System.nanoTime();
+
+    // Guarded by updateLock
+    private double noLoadRtt;
+    private int windowsSinceNoLoad;
+    // 0 normally, 1 while the queue drains for a probe, 2 while the probe measures
+    private int probePhase;
+    private double limitBeforeProbe;
+
+    private volatile double windowRtt;
+
+    /**
+     * @param initialLimit Limit until the first window completes
+     * @param minLimit Lowest limit, so some requests always get through
+     * @param maxLimit Highest limit
+     * @param tolerance How much latency may exceed the no-load latency before the limit shrinks, e.g. 1.5
+     * @param windowMillis Minimum length of a window
+     * @param minWindowSamples Minimum requests per window
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                    long windowMillis, int minWindowSamples) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.minWindowSamples = minWindowSamples;
+    }
+
+    /**
+     * Take a permit
+     * @return Whether a permit was taken; if so, {@link #release(long)} must follow
+     */
+    public boolean tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        peakInFlight.accumulateAndGet(current, Math::max);
+        return true;
+    }
+
+    /**
+     * Return a permit
+     * @param rttNanos How long the permit was held, or a negative value when the request says
+     *                 nothing about latency (e.g. it continues asynchronously)
+     */
+    public void release(long rttNanos) {
+        inFlight.decrementAndGet();
+        if (rttNanos < 0) {
+            return;
+        }
+        rttSum.add(rttNanos);
+        rttCount.increment();
+
+        long now = System.nanoTime();
+        if (now - windowStart >= windowNanos && rttCount.sum() >= minWindowSamples && updateLock.tryLock()) {
+            try {
+                if (now - windowStart >= windowNanos) {
+                    update(now);
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void update(long now) {
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        windowStart = now;
+        if (count == 0) {
+            return;
+        }
+
+        double rtt = (double) sum / count;
+        windowRtt = rtt;
+        if (probePhase == 1) {
+            probePhase = 2;
+            return;
+        }
+        if (probePhase == 2) {
+            probePhase = 0;
+            noLoadRtt = rtt;
+            windowsSinceNoLoad = 0;
+            limit = limitBeforeProbe;
+            return;
+        }
+        if (noLoadRtt == 0 || rtt <= noLoadRtt) {
+            noLoadRtt = rtt;
+            windowsSinceNoLoad = 0;
+        } else if (++windowsSinceNoLoad >= PROBE_WINDOWS) {
+            probePhase = 1;
+            limitBeforeProbe = limit;
+            limit = Math.max(minLimit, limit / 2);
+            return;
+        }
+
+        double current = limit;
+        if (peak < current / 2) {
+            return;
+        }
+        double gradient = tolerance * noLoadRtt / rtt;
+        double target = gradient >= 1 ? current + Math.sqrt(current) : current * Math.max(0.5, gradient);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Average latency of the last window, in seconds
+     */
+    public double getWindowRttSeconds() {
+        return windowRtt / 1e9;
+    }
+}
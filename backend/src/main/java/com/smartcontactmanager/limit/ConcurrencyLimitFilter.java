@@ -0,0 +1,182 @@
+package com.smartcontactmanager.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sheds load before it queues
+ * Each class of endpoint has its own AdaptiveConcurrencyLimit, so BCrypt-heavy logins cannot take
+ * the capacity of cheap reads. A request over its class's limit is answered 503 with Retry-After
+ * right away instead of waiting for a worker thread until it times out. Runs in the security chain
+ * ahead of JwtAuthenticationFilter (see SecurityConfig), so rejected requests cost no token check.
+ * Health checks, metrics scrapes and CORS preflights are never limited.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Endpoint classes, each with its own limit
+     */
+    public enum EndpointClass {
+        AUTH, READS, WRITES, UPLOADS;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final byte[] BUSY_BODY = "{\"message\":\"Server is busy, please retry shortly\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${limits.enabled:true}")
+    private boolean enabled;
+
+    @Value("${limits.window-ms:1000}")
+    private long windowMs;
+
+    @Value("${limits.min-window-samples:10}")
+    private int minWindowSamples;
+
+    @Value("${limits.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${limits.auth.initial:4}")
+    private int authInitial;
+
+    @Value("${limits.auth.max:64}")
+    private int authMax;
+
+    @Value("${limits.reads.initial:50}")
+    private int readsInitial;
+
+    @Value("${limits.reads.max:1000}")
+    private int readsMax;
+
+    @Value("${limits.writes.initial:20}")
+    private int writesInitial;
+
+    @Value("${limits.writes.max:500}")
+    private int writesMax;
+
+    @Value("${limits.uploads.initial:4}")
+    private int uploadsInitial;
+
+    @Value("${limits.uploads.max:64}")
+    private int uploadsMax;
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejectedCounters = new EnumMap<>(EndpointClass.class);
+
+    @PostConstruct
+    public void init() {
+        register(EndpointClass.AUTH, authInitial, authMax);
+        register(EndpointClass.READS, readsInitial, readsMax);
+        register(EndpointClass.WRITES, writesInitial, writesMax);
+        register(EndpointClass.UPLOADS, uploadsInitial, uploadsMax);
+    }
+
+    private void register(EndpointClass endpointClass, int initial, int max) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initial, 1, max, tolerance,
+                windowMs, minWindowSamples);
+        limits.put(endpointClass, limit);
+
+        Gauge.builder("http.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("class", endpointClass.tag())
+                .register(meterRegistry);
+        Gauge.builder("http.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently holding a permit")
+                .tag("class", endpointClass.tag())
+                .register(meterRegistry);
+        Gauge.builder("http.concurrency.rtt", limit, AdaptiveConcurrencyLimit::getWindowRttSeconds)
+                .description("Average request time in the last limit window")
+                .tag("class", endpointClass.tag())
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        rejectedCounters.put(endpointClass, Counter.builder("http.concurrency.rejected")
+                .description("Requests rejected with 503 because their class was at its limit")
+                .tag("class", endpointClass.tag())
+                .register(meterRegistry));
+    }
+
+    /**
+     * Get the limit of an endpoint class
+     */
+    public AdaptiveConcurrencyLimit getLimit(EndpointClass endpointClass) {
+        return limits.get(endpointClass);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || "OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return path.equals("/") || path.startsWith("/api/health") || path.startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        AdaptiveConcurrencyLimit limit = limits.get(endpointClass);
+        if (!limit.tryAcquire()) {
+            rejectedCounters.get(endpointClass).increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(BUSY_BODY.length);
+            response.getOutputStream().write(BUSY_BODY);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            // A request that went async (the change stream) or failed says nothing about latency
+            limit.release(failed || request.isAsyncStarted() ? -1 : System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Get the endpoint class of a request
+     */
+    static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (path.startsWith("/api/auth/")) {
+            return EndpointClass.AUTH;
+        }
+        if (path.startsWith("/api/user/profile/image") && "POST".equalsIgnoreCase(method)) {
+            return EndpointClass.UPLOADS;
+        }
+        if ("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method)) {
+            return EndpointClass.READS;
+        }
+        return EndpointClass.WRITES;
+    }
+}
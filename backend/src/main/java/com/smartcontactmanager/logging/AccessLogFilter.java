@@ -0,0 +1,144 @@
+package com.smartcontactmanager.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import com.smartcontactmanager.datasource.RequestDbStats;
+import com.smartcontactmanager.datasource.RequestDbStatsFilter;
+import com.smartcontactmanager.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes one JSON line per request to the access log
+ * Each line has the method, route template, path, status, duration, authenticated user id and
+ * the request's database work (RequestDbStats). The "access" logger goes through a bounded
+ * AsyncAppender that drops entries rather than wait when it is full (logback-spring.xml), so a
+ * slow stdout never holds up a request thread; its queue is exported as logging.access.queue.
+ * Latency histograms per route and status are the http.server.requests metric; the access log
+ * is for looking at single requests. Runs outside RequestDbStatsFilter so the request's database
+ * statistics are complete.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    // Name of the AsyncAppender in logback-spring.xml
+    private static final String APPENDER_NAME = "ACCESS_ASYNC";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${access-log.exclude:/actuator/,/api/health}")
+    private List<String> excludedPaths;
+
+    @PostConstruct
+    public void initMetrics() {
+        if (accessLog instanceof ch.qos.logback.classic.Logger logger
+                && logger.getAppender(APPENDER_NAME) instanceof AsyncAppender appender) {
+            Gauge.builder("logging.access.queue", appender, AsyncAppender::getNumberOfElementsInQueue)
+                    .description("Access log entries waiting to be written")
+                    .register(meterRegistry);
+            Gauge.builder("logging.access.queue.remaining", appender, AsyncAppender::getRemainingCapacity)
+                    .description("Free places in the access log queue; entries are dropped at 0")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !accessLog.isInfoEnabled()) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        for (String excluded : excludedPaths) {
+            if (path.startsWith(excluded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            // An exception leaving the chain becomes a 500 only after this filter
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            accessLog.info(format(request, status, System.nanoTime() - start));
+        }
+    }
+
+    private static String format(HttpServletRequest request, int status, long durationNanos) {
+        StringBuilder line = new StringBuilder(256);
+        line.append("{\"ts\":\"").append(Instant.now()).append('"');
+        line.append(",\"method\":");
+        appendString(line, request.getMethod());
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route != null) {
+            line.append(",\"route\":");
+            appendString(line, route.toString());
+        }
+        line.append(",\"path\":");
+        appendString(line, request.getRequestURI());
+        line.append(",\"status\":").append(status);
+        line.append(",\"durationMs\":").append(durationNanos / 1000 / 1000.0);
+        Object userId = request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            line.append(",\"userId\":").append(userId);
+        }
+        if (request.getAttribute(RequestDbStatsFilter.STATS_ATTRIBUTE) instanceof RequestDbStats stats
+                && stats.getConnections() > 0) {
+            line.append(",\"dbStatements\":").append(stats.getStatements());
+            line.append(",\"dbConnections\":").append(stats.getConnections());
+            line.append(",\"dbTimeMs\":").append(stats.getConnectionHoldNanos() / 1000 / 1000.0);
+            line.append(",\"dbEntities\":").append(stats.getEntitiesLoaded());
+        }
+        // The change stream continues after this filter returns
+        if (request.isAsyncStarted()) {
+            line.append(",\"async\":true");
+        }
+        return line.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
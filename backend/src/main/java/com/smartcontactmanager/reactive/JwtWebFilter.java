@@ -0,0 +1,59 @@
+package com.smartcontactmanager.reactive;
+
+import com.smartcontactmanager.security.CustomUserDetails;
+import com.smartcontactmanager.security.JwtAuthenticator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * JWT WebFilter
+ * Authenticates reactive read API requests with JwtAuthenticator, exactly as JwtAuthenticationFilter
+ * does for the servlet API. Every route needs ROLE_USER or ROLE_ADMIN (as /api/contacts/** does in
+ * SecurityConfig), so requests are rejected here: 401 without a valid token, 403 for other roles.
+ */
+public class JwtWebFilter implements WebFilter, Ordered {
+
+    /**
+     * Exchange attribute holding the authenticated CustomUserDetails
+     */
+    public static final String USER_ATTRIBUTE = JwtWebFilter.class.getName() + ".user";
+
+    @Autowired
+    private JwtAuthenticator jwtAuthenticator;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // Allow OPTIONS requests (preflight) to pass through
+        if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        // Signature check only, no I/O, so it runs on the event loop
+        CustomUserDetails user = jwtAuthenticator.authenticate(
+                exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        if (user == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+        String authority = JwtAuthenticator.authority(user.getRole());
+        if (!"ROLE_USER".equals(authority) && !"ROLE_ADMIN".equals(authority)) {
+            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return exchange.getResponse().setComplete();
+        }
+        exchange.getAttributes().put(USER_ATTRIBUTE, user);
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        // After CorsWebFilter, so rejections still carry the CORS headers
+        return 0;
+    }
+}
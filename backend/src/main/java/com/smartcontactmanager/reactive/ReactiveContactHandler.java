@@ -0,0 +1,242 @@
+package com.smartcontactmanager.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcontactmanager.security.CustomUserDetails;
+import com.smartcontactmanager.service.ContactJsonWriter;
+import com.smartcontactmanager.util.FullTextQuery;
+import com.smartcontactmanager.util.OperationTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Reactive Contact Handler
+ * Read-only contact endpoints of the reactive read API. List and search take the same parameters as
+ * ContactController's, including fields, and return the same JSON, but JSON only: a client that does
+ * not accept JSON gets 406 where the servlet API would answer in CBOR or Smile. Lists and exports are
+ * written while rows arrive from R2DBC; Netty only requests more rows as the client drains the socket,
+ * so a slow client holds a cursor but never a thread.
+ */
+public class ReactiveContactHandler {
+
+    private static final ResolvableType CONTACT_TYPE =
+            ResolvableType.forClassWithGenerics(Map.class, String.class, Object.class);
+
+    @Autowired
+    private ReactiveContactRepository contactRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${contacts.search.engine:like}")
+    private String searchEngine;
+
+    @Value("${contacts.search.fulltext.min-word-length:3}")
+    private int fullTextMinWordLength;
+
+    @Value("${contacts.search.max-page-size:200}")
+    private int maxPageSize;
+
+    private Jackson2JsonEncoder encoder;
+
+    private Timer listTimer;
+    private Timer searchTimer;
+    private Timer exportTimer;
+
+    @PostConstruct
+    public void init() {
+        encoder = new Jackson2JsonEncoder(objectMapper);
+        OperationTimers timers = new OperationTimers(meterRegistry, "contacts.reactive.operation",
+                "Time to read contacts through the reactive read API, until the last row is emitted");
+        listTimer = timers.register("list");
+        searchTimer = timers.register("search");
+        exportTimer = timers.register("export");
+    }
+
+    /**
+     * Get all contacts for current user
+     * GET /api/contacts?fields=name,phone
+     * The JSON array is written while the rows are read.
+     */
+    public Mono<ServerResponse> list(ServerRequest request) {
+        if (!acceptsJson(request)) {
+            return notAcceptable();
+        }
+        Long userId = userId(request);
+        Set<ContactJsonWriter.Field> fields;
+        try {
+            fields = ContactJsonWriter.Field.parse(request.queryParam("fields").orElse(null));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        return ifUserExists(userId, () -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(timed(contactRepository.findByUserId(userId, fields), listTimer), Map.class));
+    }
+
+    /**
+     * Search contacts
+     * GET /api/contacts/search?keyword=...&page=0&size=50&fields=name,phone
+     * The body is the requested page; X-Has-Next tells whether another page follows.
+     */
+    public Mono<ServerResponse> search(ServerRequest request) {
+        if (!acceptsJson(request)) {
+            return notAcceptable();
+        }
+        Long userId = userId(request);
+        String keyword = request.queryParam("keyword").orElse(null);
+        if (keyword == null) {
+            return badRequest("Required parameter 'keyword' is not present.");
+        }
+        int page;
+        int size;
+        Set<ContactJsonWriter.Field> fields;
+        try {
+            page = Integer.parseInt(request.queryParam("page").orElse("0"));
+            size = Integer.parseInt(request.queryParam("size").orElse("50"));
+            fields = ContactJsonWriter.Field.parse(request.queryParam("fields").orElse(null));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        if (page < 0) {
+            return badRequest("Page index must not be less than zero");
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        long offset = (long) page * pageSize;
+
+        Flux<Map<String, Object>> rows = null;
+        if ("fulltext".equalsIgnoreCase(searchEngine)) {
+            String query = FullTextQuery.booleanMode(keyword, fullTextMinWordLength);
+            if (query != null) {
+                rows = contactRepository.fullTextSearch(userId, query, fields, pageSize + 1, offset);
+            }
+        }
+        if (rows == null) {
+            rows = contactRepository.search(userId, keyword, fields, pageSize + 1, offset);
+        }
+        Flux<Map<String, Object>> pageRows = timed(rows, searchTimer);
+        return ifUserExists(userId, () -> pageRows.collectList().flatMap(contacts -> {
+            // One row past the page was read to learn whether another page follows
+            boolean hasNext = contacts.size() > pageSize;
+            List<Map<String, Object>> content = hasNext ? contacts.subList(0, pageSize) : contacts;
+            return ServerResponse.ok()
+                    .header("X-Has-Next", String.valueOf(hasNext))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                    .bodyValue(content);
+        }));
+    }
+
+    /**
+     * Export all contacts for current user
+     * GET /api/contacts/export?fields=name,phone
+     * Newline delimited JSON, one contact per line, as a file download.
+     */
+    public Mono<ServerResponse> export(ServerRequest request) {
+        Long userId = userId(request);
+        Set<ContactJsonWriter.Field> fields;
+        try {
+            fields = ContactJsonWriter.Field.parse(request.queryParam("fields").orElse(null));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+        return ifUserExists(userId, () -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("contacts.ndjson").build().toString())
+                // Encoded here because the NDJSON message writer flushes after every line
+                .body(BodyInserters.fromDataBuffers(encoder.encode(
+                        timed(contactRepository.findByUserId(userId, fields), exportTimer),
+                        request.exchange().getResponse().bufferFactory(),
+                        CONTACT_TYPE, MediaType.APPLICATION_NDJSON, Map.of()))));
+    }
+
+    private Long userId(ServerRequest request) {
+        CustomUserDetails user = (CustomUserDetails) request.attribute(JwtWebFilter.USER_ATTRIBUTE)
+                .orElseThrow(() -> new IllegalStateException("Request was not authenticated by JwtWebFilter"));
+        return user.getUserId();
+    }
+
+    private Mono<ServerResponse> ifUserExists(Long userId, Supplier<Mono<ServerResponse>> response) {
+        if (userId == null) {
+            return badRequest("User not found");
+        }
+        return contactRepository.userExists(userId)
+                .flatMap(exists -> exists ? response.get() : badRequest("User not found"));
+    }
+
+    /**
+     * Time rows from subscription until the last one is emitted, the error or the cancel
+     * OperationTimers.record would only time assembling the Flux.
+     */
+    private static <T> Flux<T> timed(Flux<T> rows, Timer timer) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            return rows.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Check whether the client accepts JSON, the only type the reactive API writes
+     * An unparseable Accept header counts as not accepting it, as on the servlet API.
+     */
+    private static boolean acceptsJson(ServerRequest request) {
+        try {
+            List<MediaType> accept = request.headers().accept();
+            return accept.isEmpty() || accept.stream().anyMatch(MediaType.APPLICATION_JSON::isCompatibleWith);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static Mono<ServerResponse> notAcceptable() {
+        return ServerResponse.status(HttpStatus.NOT_ACCEPTABLE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    private static Mono<ServerResponse> badRequest(String message) {
+        return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ErrorResponse(message));
+    }
+
+    /**
+     * Error response class
+     */
+    private static class ErrorResponse {
+        private String message;
+
+        public ErrorResponse(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.smartcontactmanager.reactive;
+
+import com.smartcontactmanager.service.ContactJsonWriter;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Contact queries for the reactive read API, over R2DBC
+ * The same queries as ContactJsonWriter, with named parameters that DatabaseClient binds with the
+ * driver's own markers. Only the requested fields are selected, and each row is emitted as a map of
+ * those fields in ContactJsonWriter's order, so the JSON matches the servlet API's. Rows are emitted
+ * as the driver decodes them and only as fast as they are requested, so a slow client slows the read
+ * down instead of rows piling up in memory.
+ */
+public class ReactiveContactRepository {
+
+    // Everything after the column list, which depends on the requested fields
+    private static final String BY_USER = " FROM contacts WHERE user_id = :userId";
+
+    private static final String SEARCH = " FROM contacts WHERE user_id = :userId AND " +
+            "(LOWER(name) LIKE :lowerPattern OR LOWER(email) LIKE :lowerPattern OR phone LIKE :pattern) " +
+            "ORDER BY name, id LIMIT :limit OFFSET :offset";
+
+    private static final String FULL_TEXT_SEARCH = " FROM contacts WHERE user_id = :userId AND " +
+            "MATCH(name, email, description) AGAINST (:query IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(name, email, description) AGAINST (:query IN BOOLEAN MODE) DESC, id " +
+            "LIMIT :limit OFFSET :offset";
+
+    private static final String USER_EXISTS = "SELECT id FROM users WHERE id = :userId";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Boolean> userExists(Long userId) {
+        return databaseClient.sql(USER_EXISTS)
+                .bind("userId", userId)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * @param fields Fields to select, see ContactJsonWriter.Field.parse
+     */
+    public Flux<Map<String, Object>> findByUserId(Long userId, Set<ContactJsonWriter.Field> fields) {
+        return databaseClient.sql(select(fields, BY_USER))
+                .bind("userId", userId)
+                .map(row -> toContact(row, fields))
+                .all();
+    }
+
+    /**
+     * Substring search, ordered by name
+     * @param limit Rows to read; callers ask for one more than the page size to learn whether another page follows
+     */
+    public Flux<Map<String, Object>> search(Long userId, String keyword, Set<ContactJsonWriter.Field> fields,
+                                            int limit, long offset) {
+        return databaseClient.sql(select(fields, SEARCH))
+                .bind("userId", userId)
+                .bind("lowerPattern", "%" + keyword.toLowerCase(Locale.ROOT) + "%")
+                .bind("pattern", "%" + keyword + "%")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> toContact(row, fields))
+                .all();
+    }
+
+    /**
+     * FULLTEXT search (MySQL only), most relevant first
+     * @param query Boolean mode query built by FullTextQuery
+     */
+    public Flux<Map<String, Object>> fullTextSearch(Long userId, String query, Set<ContactJsonWriter.Field> fields,
+                                                    int limit, long offset) {
+        return databaseClient.sql(select(fields, FULL_TEXT_SEARCH))
+                .bind("userId", userId)
+                .bind("query", query)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> toContact(row, fields))
+                .all();
+    }
+
+    private static String select(Set<ContactJsonWriter.Field> fields, String from) {
+        StringJoiner select = new StringJoiner(", ", "SELECT ", from);
+        for (ContactJsonWriter.Field field : fields) {
+            select.add(field.getName());
+        }
+        return select.toString();
+    }
+
+    private static Map<String, Object> toContact(Readable row, Set<ContactJsonWriter.Field> fields) {
+        Map<String, Object> contact = new LinkedHashMap<>();
+        for (ContactJsonWriter.Field field : fields) {
+            contact.put(field.getName(), field == ContactJsonWriter.Field.ID
+                    ? row.get(field.getName(), Long.class)
+                    : row.get(field.getName(), String.class));
+        }
+        return contact;
+    }
+}
@@ -0,0 +1,93 @@
+package com.smartcontactmanager.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcontactmanager.security.JwtAuthenticator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.reactive.context.AnnotationConfigReactiveWebServerApplicationContext;
+import org.springframework.boot.web.reactive.context.StandardReactiveWebEnvironment;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfigurationSource;
+
+import java.util.Map;
+
+/**
+ * Reactive read API
+ * Serves the contact list, search and export from WebFlux on Netty, on its own port next to the
+ * servlet API, so many slow or long-lived readers cost a few event loop threads and no request
+ * threads or JDBC connections. It runs in a context of its own (ReactiveReadApiConfig), with its own
+ * web server and an R2DBC connection pool configured with spring.r2dbc.*. That context cannot be a
+ * child of this one (Spring MVC and WebFlux refuse to share a context hierarchy), so the beans both
+ * APIs must agree on are handed over explicitly.
+ */
+@Component
+@ConditionalOnProperty(name = "contacts.reactive.enabled", havingValue = "true")
+public class ReactiveReadApi {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveReadApi.class);
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Autowired
+    private JwtAuthenticator jwtAuthenticator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CorsConfigurationSource corsConfigurationSource;
+
+    @Value("${contacts.reactive.port:8081}")
+    private int port;
+
+    private AnnotationConfigReactiveWebServerApplicationContext reactiveContext;
+
+    /**
+     * Start the reactive context once the servlet application is up
+     */
+    @EventListener
+    public synchronized void start(ApplicationReadyEvent event) {
+        if (event.getApplicationContext() != applicationContext || reactiveContext != null) {
+            return;
+        }
+        // The servlet application's settings, except that server.port is the reactive one
+        StandardReactiveWebEnvironment environment = new StandardReactiveWebEnvironment();
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("contactsReactive", Map.of("server.port", port)));
+        environment.merge(applicationContext.getEnvironment());
+
+        AnnotationConfigReactiveWebServerApplicationContext context = new AnnotationConfigReactiveWebServerApplicationContext();
+        context.setId(applicationContext.getId() + ":reactive");
+        context.setServerNamespace("reactive");
+        context.setEnvironment(environment);
+        context.getBeanFactory().registerSingleton("jwtAuthenticator", jwtAuthenticator);
+        context.getBeanFactory().registerSingleton("meterRegistry", meterRegistry);
+        context.getBeanFactory().registerSingleton("objectMapper", objectMapper);
+        context.getBeanFactory().registerSingleton("corsConfigurationSource", corsConfigurationSource);
+        context.register(ReactiveReadApiConfig.class);
+        context.refresh();
+        reactiveContext = context;
+        log.info("Reactive read API started on port {}", context.getWebServer().getPort());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (reactiveContext != null) {
+            reactiveContext.close();
+            reactiveContext = null;
+        }
+    }
+}
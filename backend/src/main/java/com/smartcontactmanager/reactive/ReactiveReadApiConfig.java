@@ -0,0 +1,77 @@
+package com.smartcontactmanager.reactive;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.HttpHandlerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.ReactiveWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.error.ErrorWebFluxAutoConfiguration;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.Ordered;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Reactive read API configuration
+ * Only loaded into the context ReactiveReadApi starts. It is deliberately not a @Configuration
+ * and its beans are not @Components, so the servlet application's component scan never picks them up,
+ * and it imports just the auto-configurations the reactive stack needs.
+ */
+@ImportAutoConfiguration({
+        ReactiveWebServerFactoryAutoConfiguration.class,
+        HttpHandlerAutoConfiguration.class,
+        WebFluxAutoConfiguration.class,
+        CodecsAutoConfiguration.class,
+        ErrorWebFluxAutoConfiguration.class,
+        R2dbcAutoConfiguration.class
+})
+@Import({ReactiveContactRepository.class, ReactiveContactHandler.class, JwtWebFilter.class})
+public class ReactiveReadApiConfig {
+
+    /**
+     * Netty rather than the Tomcat the servlet API already puts on the classpath
+     */
+    @Bean
+    public NettyReactiveWebServerFactory reactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Same routes as ContactController's reads, plus the export
+     */
+    @Bean
+    public RouterFunction<ServerResponse> contactRoutes(ReactiveContactHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/contacts", handler::list)
+                .GET("/api/contacts/search", handler::search)
+                .GET("/api/contacts/export", handler::export)
+                .build();
+    }
+
+    /**
+     * The servlet API's CORS settings (SecurityConfig), applied before authentication
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CorsWebFilter corsWebFilter(CorsConfigurationSource corsConfigurationSource) {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.setCorsConfigurations(
+                ((org.springframework.web.cors.UrlBasedCorsConfigurationSource) corsConfigurationSource).getCorsConfigurations());
+        return new CorsWebFilter(source);
+    }
+}
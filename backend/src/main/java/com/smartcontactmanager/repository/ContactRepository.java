@@ -2,6 +2,8 @@ package com.smartcontactmanager.repository;
 
 import com.smartcontactmanager.entity.Contact;
 import com.smartcontactmanager.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,9 +21,18 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
     
     List<Contact> findByUserId(Long userId);
     
+    // Substring match, ordered by name along the (user_id, name, id) index
     @Query("SELECT c FROM Contact c WHERE c.user = :user AND " +
            "(LOWER(c.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(c.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "c.phone LIKE CONCAT('%', :keyword, '%'))")
-    List<Contact> searchContacts(@Param("user") User user, @Param("keyword") String keyword);
+           "c.phone LIKE CONCAT('%', :keyword, '%')) " +
+           "ORDER BY c.name, c.id")
+    Slice<Contact> searchContacts(@Param("user") User user, @Param("keyword") String keyword, Pageable pageable);
+    
+    // MySQL FULLTEXT match in boolean mode, most relevant first (query built by FullTextQuery)
+    @Query(value = "SELECT * FROM contacts WHERE user_id = :userId AND " +
+                   "MATCH(name, email, description) AGAINST (:query IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(name, email, description) AGAINST (:query IN BOOLEAN MODE) DESC, id",
+           nativeQuery = true)
+    Slice<Contact> fullTextSearch(@Param("userId") Long userId, @Param("query") String query, Pageable pageable);
 }
@@ -2,8 +2,14 @@ package com.smartcontactmanager.repository;
 
 import com.smartcontactmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,7 +18,21 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    // Lookups below run read-write so they always hit the primary database: login must find
+    // accounts registered a moment ago, and image clean-up must never act on a stale replica
+    
+    @Transactional
     Optional<User> findByEmail(String email);
     
+    @Transactional
     boolean existsByEmail(String email);
+    
+    @Transactional
+    @Query("SELECT u.imagePath FROM User u WHERE u.imagePath IN :paths")
+    List<String> findImagePathsIn(@Param("paths") Collection<String> paths);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.imagePath = :newPath WHERE u.imagePath = :oldPath")
+    int replaceImagePath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
 }
@@ -1,6 +1,5 @@
 package com.smartcontactmanager.security;
 
-import com.smartcontactmanager.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,13 +17,16 @@ import java.util.Collections;
 
 /**
  * JWT Authentication Filter
- * Intercepts requests and validates JWT tokens
+ * Intercepts requests and validates JWT tokens (see JwtAuthenticator)
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /** Request attribute holding the authenticated user's id, for access logging */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".userId";
+
     @Autowired
-    private JwtUtil jwtUtil;
+    private JwtAuthenticator jwtAuthenticator;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -36,47 +38,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        final String authorizationHeader = request.getHeader("Authorization");
-
-        String email = null;
-        String jwt = null;
-        String role = null;
-        Long userId = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                email = jwtUtil.getEmailFromToken(jwt);
-                role = jwtUtil.getRoleFromToken(jwt);
-                userId = jwtUtil.getUserIdFromToken(jwt);
-            } catch (Exception e) {
-                logger.error("JWT Token parsing error: " + e.getMessage());
-                // Don't return early - let Spring Security handle authorization
-                // Just log the error and continue
-            }
-        }
-
-        if (email != null && jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                if (jwtUtil.validateToken(jwt, email)) {
-                    // Create custom authentication with userId
-                    // Ensure role has ROLE_ prefix for Spring Security
-                    String authority = (role != null && !role.startsWith("ROLE_")) ? "ROLE_" + role : role;
-                    if (authority == null || authority.isEmpty()) {
-                        authority = "ROLE_USER"; // Default role
-                    }
-                    
-                    CustomUserDetails userDetails = new CustomUserDetails(email, role, userId);
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, Collections.singletonList(new SimpleGrantedAuthority(authority))
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    logger.warn("JWT Token validation failed for email: " + email);
-                }
-            } catch (Exception e) {
-                logger.error("Error validating JWT token: " + e.getMessage());
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Invalid tokens are not rejected here - Spring Security handles authorization
+            CustomUserDetails userDetails = jwtAuthenticator.authenticate(request.getHeader("Authorization"));
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, Collections.singletonList(
+                                new SimpleGrantedAuthority(JwtAuthenticator.authority(userDetails.getRole())))
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(USER_ID_ATTRIBUTE, userDetails.getUserId());
             }
         }
 
@@ -1,6 +1,9 @@
 package com.smartcontactmanager.security;
 
+import com.smartcontactmanager.limit.ConcurrencyLimitFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,6 +31,13 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    // Private port for actuator (management.server.port), -1 when actuator shares the public port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -45,22 +55,32 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Completion of an already authorized async request, e.g. the end of /api/contacts/stream
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // 🔥 IMPORTANT: allow root for Railway health check
                 .requestMatchers("/").permitAll()
 
                 // public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/health/**").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                // Metrics are open to the scraper on the private management port only
+                .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort
+                        && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                 .requestMatchers("/api/user/images/**").permitAll()
 
                 // secured endpoints
                 .requestMatchers("/api/user/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                 .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/contacts/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
 
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // After CORS, so browsers can read the 503, and before any per-request work
+            .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -81,7 +101,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Has-Next"));
         configuration.setMaxAge(3600L);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -5,10 +5,16 @@ import com.smartcontactmanager.dto.LoginRequest;
 import com.smartcontactmanager.dto.RegisterRequest;
 import com.smartcontactmanager.entity.User;
 import com.smartcontactmanager.util.JwtUtil;
+import com.smartcontactmanager.util.OperationTimers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+
 /**
  * Service layer for Authentication operations
  */
@@ -24,59 +30,108 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer registerTimer;
+    private Timer loginTimer;
+    private Timer registerAdminTimer;
+    private Timer adminLoginTimer;
+    private Timer passwordCheckTimer;
+    private Counter loginFailures;
+    private Counter adminLoginFailures;
+
+    @PostConstruct
+    public void initMetrics() {
+        OperationTimers timers = new OperationTimers(meterRegistry, "auth.operation",
+                "Time spent in authentication operations");
+        registerTimer = timers.register("register");
+        loginTimer = timers.register("login");
+        registerAdminTimer = timers.register("register_admin");
+        adminLoginTimer = timers.register("admin_login");
+        passwordCheckTimer = Timer.builder("auth.password.check")
+                .description("Time spent verifying password hashes")
+                .register(meterRegistry);
+        loginFailures = loginFailureCounter("login");
+        adminLoginFailures = loginFailureCounter("admin_login");
+    }
+
+    private Counter loginFailureCounter(String operation) {
+        return Counter.builder("auth.login.failures")
+                .description("Rejected login attempts")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
     /**
      * Register a new user
      */
     public AuthResponse register(RegisterRequest registerRequest) {
-        User user = userService.registerUser(registerRequest);
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
+        return OperationTimers.record(registerTimer, () -> {
+            User user = userService.registerUser(registerRequest);
+            String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
         
-        return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole(), user.getId(), user.getImagePath());
+            return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole(), user.getId(), user.getImagePath());
+        });
     }
 
     /**
      * Login user
      */
     public AuthResponse login(LoginRequest loginRequest) {
-        User user = userService.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
-
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid email or password");
-        }
+        return OperationTimers.record(loginTimer, () -> {
+            User user = userService.findByEmail(loginRequest.getEmail()).orElse(null);
+            if (user == null || !passwordMatches(loginRequest.getPassword(), user.getPassword())) {
+                loginFailures.increment();
+                throw new RuntimeException("Invalid email or password");
+            }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
+            String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
         
-        return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole(), user.getId(), user.getImagePath());
+            return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole(), user.getId(), user.getImagePath());
+        });
     }
 
     /**
      * Register a new admin
      */
     public AuthResponse registerAdmin(RegisterRequest registerRequest) {
-        User user = userService.registerAdmin(registerRequest);
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
+        return OperationTimers.record(registerAdminTimer, () -> {
+            User user = userService.registerAdmin(registerRequest);
+            String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
         
-        return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole(), user.getId(), user.getImagePath());
+            return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole(), user.getId(), user.getImagePath());
+        });
     }
 
     /**
      * Admin login
      */
     public AuthResponse adminLogin(LoginRequest loginRequest) {
-        User user = userService.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
+        return OperationTimers.record(adminLoginTimer, () -> {
+            User user = userService.findByEmail(loginRequest.getEmail()).orElse(null);
+            if (user == null || !passwordMatches(loginRequest.getPassword(), user.getPassword())) {
+                adminLoginFailures.increment();
+                throw new RuntimeException("Invalid email or password");
+            }
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid email or password");
-        }
+            if (!user.getRole().equals("ROLE_ADMIN") && !user.getRole().equals("ADMIN")) {
+                adminLoginFailures.increment();
+                throw new RuntimeException("Access denied. Admin role required.");
+            }
 
-        if (!user.getRole().equals("ROLE_ADMIN") && !user.getRole().equals("ADMIN")) {
-            throw new RuntimeException("Access denied. Admin role required.");
-        }
-
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
+            String token = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId());
         
-        return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole(), user.getId(), user.getImagePath());
+            return new AuthResponse(token, user.getEmail(), user.getName(), user.getRole(), user.getId(), user.getImagePath());
+        });
+    }
+
+    /**
+     * Helper method to verify a password against its hash (BCrypt dominates login time)
+     */
+    private boolean passwordMatches(String rawPassword, String encodedPassword) {
+        return OperationTimers.record(passwordCheckTimer, () -> {
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        });
     }
 }
@@ -0,0 +1,268 @@
+package com.smartcontactmanager.service;
+
+import com.smartcontactmanager.cache.CacheInvalidationBus;
+import com.smartcontactmanager.config.BackgroundThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process pub/sub of contact changes, behind GET /api/contacts/stream
+ * Writers never wait for subscribers: once the write has committed, the event is appended to a
+ * bounded lock-free queue per subscriber of that user, and dispatcher threads do the sending.
+ * When a subscriber falls capacity events behind, its backlog is dropped and replaced by a single
+ * resync, which tells the client to reload its contacts instead of replaying every change.
+ * A subscriber whose connection fails is removed. Sends are blocking writes: a client that stops
+ * reading holds a dispatcher thread once its socket buffer is full, until the write times out
+ * (server.tomcat.connection-timeout) and it is removed, so threads is how many such clients it takes
+ * to delay everyone else's events.
+ * Writes made on other instances only arrive as cache invalidations of the user's contacts, without
+ * the change itself, so they reach this instance's subscribers as a resync.
+ */
+@Component
+public class ContactChangeBus {
+
+    /**
+     * Where a subscriber's events go
+     * Called by one dispatcher thread at a time; an exception ends the subscription.
+     */
+    public interface Sink {
+        void send(ContactChangeEvent event) throws IOException;
+
+        /**
+         * Events were dropped, the client should reload its contacts
+         */
+        void resync() throws IOException;
+
+        /**
+         * Keeps idle connections from being closed by proxies, and finds clients that went away
+         */
+        void heartbeat() throws IOException;
+    }
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${contacts.stream.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${contacts.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${contacts.stream.threads:4}")
+    private int threads;
+
+    private final ConcurrentHashMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private ThreadPoolExecutor executor;
+
+    private Counter sentCounter;
+    private Counter coalescedCounter;
+
+    @PostConstruct
+    public void start() {
+        // At most one drain task per subscriber is queued, so max-subscribers bounds the queue
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), backgroundThreads.newThreadFactory("contact-stream-"));
+        executor.allowCoreThreadTimeOut(true);
+
+        meterRegistry.gauge("contacts.stream.subscribers", subscriberCount);
+        sentCounter = eventCounter("sent");
+        coalescedCounter = eventCounter("coalesced");
+
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.CONTACTS, (key, remote) -> {
+            if (remote) {
+                resync(Long.valueOf(key));
+            }
+        });
+    }
+
+    private Counter eventCounter(String outcome) {
+        return Counter.builder("contacts.stream.events")
+                .description("Contact change events sent to stream subscribers, or dropped for a resync")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Subscribe to the changes of a user's contacts
+     * @return The subscription, or null when max-subscribers are already connected
+     */
+    public Subscription subscribe(Long userId, Sink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        Subscription subscription = new Subscription(userId, sink);
+        subscriptions.compute(userId, (id, userSubscriptions) -> {
+            Set<Subscription> set = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            set.add(subscription);
+            return set;
+        });
+        return subscription;
+    }
+
+    /**
+     * End a subscription; safe to call more than once
+     */
+    public void unsubscribe(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.userId, (id, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    /**
+     * Queue an event for the user's subscribers
+     * Runs on the writing thread after commit (or right away outside a transaction) and never blocks.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(ContactChangeEvent event) {
+        Set<Subscription> userSubscriptions = subscriptions.get(event.getUserId());
+        if (userSubscriptions != null) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Tell the user's subscribers to reload their contacts
+     * Never blocks, like publish.
+     */
+    public void resync(Long userId) {
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions != null) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.overflowed = true;
+                subscription.schedule();
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${contacts.stream.heartbeat-ms:25000}",
+            fixedDelayString = "${contacts.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscription> userSubscriptions : subscriptions.values()) {
+            for (Subscription subscription : userSubscriptions) {
+                subscription.heartbeatDue = true;
+                subscription.schedule();
+            }
+        }
+    }
+
+    /**
+     * One connected client
+     */
+    public final class Subscription {
+        private final Long userId;
+        private final Sink sink;
+        private final ConcurrentLinkedQueue<ContactChangeEvent> queue = new ConcurrentLinkedQueue<>();
+        // ConcurrentLinkedQueue.size() walks the queue, so its length is counted separately
+        private final AtomicInteger queued = new AtomicInteger();
+        // Set when the queue was full or by resync; cleared by the dispatcher when it sends the resync
+        private volatile boolean overflowed;
+        private volatile boolean heartbeatDue;
+        // Whether a drain task is queued or running, so there is only ever one
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Long userId, Sink sink) {
+            this.userId = userId;
+            this.sink = sink;
+        }
+
+        private void offer(ContactChangeEvent event) {
+            if (overflowed) {
+                // A resync is already pending and covers this change too
+                coalescedCounter.increment();
+                return;
+            }
+            if (queued.incrementAndGet() > queueCapacity) {
+                queued.decrementAndGet();
+                overflowed = true;
+                coalescedCounter.increment();
+            } else {
+                queue.offer(event);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (closed.get() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    if (overflowed) {
+                        overflowed = false;
+                        // The reload the client does on resync includes whatever is still queued
+                        while (queue.poll() != null) {
+                            queued.decrementAndGet();
+                            coalescedCounter.increment();
+                        }
+                        sink.resync();
+                    }
+                    ContactChangeEvent event;
+                    while (!overflowed && !closed.get() && (event = queue.poll()) != null) {
+                        queued.decrementAndGet();
+                        sink.send(event);
+                        sentCounter.increment();
+                    }
+                    if (heartbeatDue) {
+                        heartbeatDue = false;
+                        sink.heartbeat();
+                    }
+                    scheduled.set(false);
+                    // Something may have been offered after the last poll but before the flag was cleared
+                } while (!closed.get() && (!queue.isEmpty() || overflowed || heartbeatDue)
+                        && scheduled.compareAndSet(false, true));
+            } catch (IOException | RuntimeException e) {
+                // The client went away or its connection timed out
+                unsubscribe(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartcontactmanager.service;
+
+import com.smartcontactmanager.dto.ContactDTO;
+
+import java.util.Locale;
+
+/**
+ * A contact of a user was created, updated or deleted
+ * Published by ContactService inside the write transaction; ContactChangeBus delivers it to the
+ * user's change stream subscribers once the transaction has committed.
+ */
+public class ContactChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED;
+
+        /**
+         * SSE event name, e.g. "created"
+         */
+        public String eventName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Long userId;
+    private final Type type;
+    private final Long contactId;
+    private final ContactDTO contact;
+
+    public ContactChangeEvent(Long userId, Type type, Long contactId, ContactDTO contact) {
+        this.userId = userId;
+        this.type = type;
+        this.contactId = contactId;
+        this.contact = contact;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getContactId() {
+        return contactId;
+    }
+
+    /**
+     * The contact after the change, null when it was deleted
+     */
+    public ContactDTO getContact() {
+        return contact;
+    }
+}
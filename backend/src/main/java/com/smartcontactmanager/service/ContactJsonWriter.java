@@ -0,0 +1,336 @@
+package com.smartcontactmanager.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.core.util.RecyclerPool;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Streaming JSON writer for contact lists
+ * Rows are read from a JDBC cursor and written with a JsonGenerator as the same objects ContactDTO
+ * serializes to, so no Contact entities, DTOs or lists of either are built. Only the requested
+ * fields are selected, so a large description is neither read nor sent unless it is asked for.
+ * Besides JSON the same generator calls produce CBOR or Smile, for clients that ask for a compact
+ * binary encoding. Generator buffers come from a shared pool rather than Jackson's per-thread one,
+ * which virtual threads never reuse.
+ * The queries mirror the ContactRepository ones; callers must run inside a transaction so the
+ * connection is routed like the repository's and released only after the last row is written.
+ */
+@Component
+public class ContactJsonWriter {
+
+    // Everything after the column list, which depends on the requested fields
+    private static final String BY_USER = " FROM contacts WHERE user_id = ?";
+
+    private static final String ALL_BY_USER = " FROM contacts ORDER BY user_id, id";
+
+    private static final String SEARCH = " FROM contacts WHERE user_id = ? AND " +
+            "(LOWER(name) LIKE ? OR LOWER(email) LIKE ? OR phone LIKE ?) " +
+            "ORDER BY name, id LIMIT ? OFFSET ?";
+
+    private static final String FULL_TEXT_SEARCH = " FROM contacts WHERE user_id = ? AND " +
+            "MATCH(name, email, description) AGAINST (? IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(name, email, description) AGAINST (? IN BOOLEAN MODE) DESC, id LIMIT ? OFFSET ?";
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * Media types the writer produces, in order of preference when the client accepts several
+     */
+    public static final List<MediaType> MEDIA_TYPES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    /**
+     * ContactDTO fields, in the order they are written
+     */
+    public enum Field {
+        ID("id"), NAME("name"), EMAIL("email"), PHONE("phone"), DESCRIPTION("description");
+
+        // The column has the same name as the field
+        final String column;
+        // Encoded once instead of for every row
+        final SerializableString serializedName;
+
+        Field(String name) {
+            this.column = name;
+            this.serializedName = new SerializedString(name);
+        }
+
+        /**
+         * Name of the field, which is also its column
+         */
+        public String getName() {
+            return column;
+        }
+
+        /**
+         * Parse a comma separated fields parameter, e.g. "name,phone"
+         * id is always included, so clients can still update and delete what they list.
+         * @param fields The parameter, or null/blank for all fields
+         */
+        public static Set<Field> parse(String fields) {
+            if (fields == null || fields.isBlank()) {
+                return EnumSet.allOf(Field.class);
+            }
+            Set<Field> selected = EnumSet.of(ID);
+            for (String name : fields.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                Field field = null;
+                for (Field candidate : values()) {
+                    if (candidate.column.equals(trimmed)) {
+                        field = candidate;
+                    }
+                }
+                if (field == null) {
+                    throw new IllegalArgumentException("Unknown field: " + trimmed);
+                }
+                selected.add(field);
+            }
+            return selected;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Rows fetched per round trip; 0 picks one for the database (MySQL streams row by row)
+    @Value("${contacts.json.fetch-size:0}")
+    private int fetchSize;
+
+    private final Map<MediaType, JsonFactory> factories = createFactories();
+
+    @PostConstruct
+    public void initFetchSize() throws MetaDataAccessException {
+        if (fetchSize == 0) {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            // Connector/J only streams a result set instead of buffering all of it when asked for MIN_VALUE
+            fetchSize = "MySQL".equalsIgnoreCase(product) ? Integer.MIN_VALUE : 500;
+        }
+    }
+
+    /**
+     * Pick the media type to write for the types a client accepts
+     * @param acceptable Accepted types, most preferred first
+     * @return One of MEDIA_TYPES, or null when none is acceptable
+     */
+    public static MediaType negotiate(List<MediaType> acceptable) {
+        for (MediaType accepted : acceptable) {
+            for (MediaType produced : MEDIA_TYPES) {
+                if (accepted.isCompatibleWith(produced)) {
+                    return produced;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write all contacts of a user as an array
+     * @param fields Fields to select and write, see Field.parse
+     * @param mediaType One of MEDIA_TYPES
+     */
+    public void writeByUserId(Long userId, Set<Field> fields, MediaType mediaType, OutputStream out)
+            throws IOException {
+        write(fields, mediaType, out, BY_USER, Integer.MAX_VALUE, userId);
+    }
+
+    /**
+     * Read the contacts of all users with one query, selecting only the requested fields
+     * For the admin user listing, which embeds each user's contacts in a JSON document.
+     * @param fields Fields to select, see Field.parse
+     * @return Contacts by user id, as field name to value maps; users without contacts are absent
+     */
+    public Map<Long, List<Map<String, Object>>> readAllByUser(Set<Field> fields) {
+        Field[] columns = fields.toArray(new Field[0]);
+        StringJoiner select = new StringJoiner(", ", "SELECT user_id, ", ALL_BY_USER);
+        for (Field field : columns) {
+            select.add(field.column);
+        }
+        Map<Long, List<Map<String, Object>>> contactsByUser = new HashMap<>();
+        jdbcTemplate.query(statement(select.toString()), rs -> {
+            Map<String, Object> contact = new LinkedHashMap<>();
+            for (int i = 0; i < columns.length; i++) {
+                contact.put(columns[i].column,
+                        columns[i] == Field.ID ? (Object) rs.getLong(i + 2) : rs.getString(i + 2));
+            }
+            contactsByUser.computeIfAbsent(rs.getLong(1), userId -> new ArrayList<>()).add(contact);
+        });
+        return contactsByUser;
+    }
+
+    /**
+     * Write one page of the substring search as an array
+     * @return Whether another page follows
+     */
+    public boolean writeSearch(Long userId, String keyword, Pageable pageable, Set<Field> fields,
+                               MediaType mediaType, OutputStream out) throws IOException {
+        String lowerPattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+        return write(fields, mediaType, out, SEARCH, pageable.getPageSize(), userId, lowerPattern, lowerPattern,
+                "%" + keyword + "%", pageable.getPageSize() + 1, pageable.getOffset());
+    }
+
+    /**
+     * Write one page of the FULLTEXT search as an array, most relevant first
+     * @param query Boolean mode query built by FullTextQuery
+     * @return Whether another page follows
+     */
+    public boolean writeFullTextSearch(Long userId, String query, Pageable pageable, Set<Field> fields,
+                                       MediaType mediaType, OutputStream out) throws IOException {
+        return write(fields, mediaType, out, FULL_TEXT_SEARCH, pageable.getPageSize(), userId, query, query,
+                pageable.getPageSize() + 1, pageable.getOffset());
+    }
+
+    /**
+     * Run the query and write up to limit rows
+     * @return Whether the query returned more than limit rows
+     */
+    private boolean write(Set<Field> fields, MediaType mediaType, OutputStream out, String from, int limit,
+                          Object... args) throws IOException {
+        JsonFactory factory = factories.get(mediaType);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unsupported media type " + mediaType);
+        }
+        Field[] columns = fields.toArray(new Field[0]);
+        StringJoiner select = new StringJoiner(", ", "SELECT ", from);
+        for (Field field : columns) {
+            select.add(field.column);
+        }
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.writeStartArray();
+            Boolean more = jdbcTemplate.query(statement(select.toString(), args), rs -> {
+                try {
+                    int rows = 0;
+                    while (rs.next()) {
+                        if (rows == limit) {
+                            return true;
+                        }
+                        writeContact(generator, rs, columns);
+                        rows++;
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            return Boolean.TRUE.equals(more);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * One factory per media type, all drawing generator buffers from the same pool
+     * The pool grows to the number of concurrent responses, which the connection pool already bounds.
+     * A failed query must leave the array unterminated, not look like a complete response.
+     */
+    private static Map<MediaType, JsonFactory> createFactories() {
+        RecyclerPool<BufferRecycler> pool = JsonRecyclerPools.newConcurrentDequePool();
+        Map<MediaType, JsonFactory> factories = new HashMap<>();
+        factories.put(MediaType.APPLICATION_JSON, JsonFactory.builder()
+                .recyclerPool(pool)
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+                .build());
+        factories.put(MediaType.APPLICATION_CBOR, CBORFactory.builder()
+                .recyclerPool(pool)
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+                .build());
+        factories.put(APPLICATION_SMILE, SmileFactory.builder()
+                .recyclerPool(pool)
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+                .build());
+        return factories;
+    }
+
+    private PreparedStatementCreator statement(String sql, Object... args) {
+        return new CursorStatement(sql, fetchSize, args);
+    }
+
+    private void writeContact(JsonGenerator generator, ResultSet rs, Field[] columns)
+            throws SQLException, IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            generator.writeFieldName(columns[i].serializedName);
+            if (columns[i] == Field.ID) {
+                generator.writeNumber(rs.getLong(i + 1));
+            } else {
+                generator.writeString(rs.getString(i + 1));
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Forward-only, read-only statement with the cursor fetch size
+     * Exposes its SQL so JdbcTemplate can log it and include it in translated exceptions.
+     */
+    private static class CursorStatement implements PreparedStatementCreator, SqlProvider {
+        private final String sql;
+        private final int fetchSize;
+        private final Object[] args;
+
+        CursorStatement(String sql, int fetchSize, Object[] args) {
+            this.sql = sql;
+            this.fetchSize = fetchSize;
+            this.args = args;
+        }
+
+        @Override
+        public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+    }
+}
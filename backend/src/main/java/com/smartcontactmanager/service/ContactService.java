@@ -1,14 +1,29 @@
 package com.smartcontactmanager.service;
 
+import com.smartcontactmanager.cache.CacheInvalidationBus;
 import com.smartcontactmanager.dto.ContactDTO;
 import com.smartcontactmanager.entity.Contact;
 import com.smartcontactmanager.entity.User;
 import com.smartcontactmanager.repository.ContactRepository;
+import com.smartcontactmanager.util.FullTextQuery;
+import com.smartcontactmanager.util.OperationTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service layer for Contact operations
@@ -22,6 +37,56 @@ public class ContactService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ContactJsonWriter contactJsonWriter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Contact changes go to ContactChangeBus (the change stream) once the transaction commits
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // ...and to change streams on the other instances, which resync their subscribers
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    // like: substring match on name, email and phone; fulltext: MySQL FULLTEXT on name, email and description
+    @Value("${contacts.search.engine:like}")
+    private String searchEngine;
+
+    @Value("${contacts.search.fulltext.min-word-length:3}")
+    private int fullTextMinWordLength;
+
+    @Value("${contacts.search.max-page-size:200}")
+    private int maxPageSize;
+
+    private Timer createTimer;
+    private Timer updateTimer;
+    private Timer deleteTimer;
+    private Timer listTimer;
+    private Timer searchTimer;
+    private Timer adminListTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        OperationTimers timers = new OperationTimers(meterRegistry, "contacts.operation",
+                "Time spent in contact operations");
+        createTimer = timers.register("create");
+        updateTimer = timers.register("update");
+        deleteTimer = timers.register("delete");
+        listTimer = timers.register("list");
+        searchTimer = timers.register("search");
+        adminListTimer = timers.register("admin_list");
+    }
+
+    @PostConstruct
+    public void checkSearchEngine() {
+        if (!"like".equalsIgnoreCase(searchEngine) && !"fulltext".equalsIgnoreCase(searchEngine)) {
+            throw new IllegalStateException("Unknown contacts.search.engine: " + searchEngine);
+        }
+    }
+
     /**
      * Convert Contact entity to DTO
      */
@@ -51,85 +116,137 @@ public class ContactService {
     /**
      * Create a new contact
      */
+    @Transactional
     public ContactDTO createContact(ContactDTO contactDTO, Long userId) {
-        User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return OperationTimers.record(createTimer, () -> {
+            User user = userService.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Contact contact = convertToEntity(contactDTO, user);
-        contact = contactRepository.save(contact);
-        return convertToDTO(contact);
+            Contact contact = convertToEntity(contactDTO, user);
+            contact = contactRepository.save(contact);
+            ContactDTO created = convertToDTO(contact);
+            eventPublisher.publishEvent(new ContactChangeEvent(userId, ContactChangeEvent.Type.CREATED,
+                    created.getId(), created));
+            cacheInvalidationBus.publish(CacheInvalidationBus.CONTACTS, String.valueOf(userId));
+            return created;
+        });
     }
 
     /**
      * Update an existing contact
      */
+    @Transactional
     public ContactDTO updateContact(Long contactId, ContactDTO contactDTO, Long userId) {
-        Contact contact = contactRepository.findById(contactId)
-                .orElseThrow(() -> new RuntimeException("Contact not found"));
+        return OperationTimers.record(updateTimer, () -> {
+            Contact contact = contactRepository.findById(contactId)
+                    .orElseThrow(() -> new RuntimeException("Contact not found"));
 
-        // Check if contact belongs to user
-        if (!contact.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized: Contact does not belong to user");
-        }
+            // Check if contact belongs to user
+            if (!contact.getUser().getId().equals(userId)) {
+                throw new RuntimeException("Unauthorized: Contact does not belong to user");
+            }
 
-        contact.setName(contactDTO.getName());
-        contact.setEmail(contactDTO.getEmail());
-        contact.setPhone(contactDTO.getPhone());
-        contact.setDescription(contactDTO.getDescription());
+            contact.setName(contactDTO.getName());
+            contact.setEmail(contactDTO.getEmail());
+            contact.setPhone(contactDTO.getPhone());
+            contact.setDescription(contactDTO.getDescription());
 
-        contact = contactRepository.save(contact);
-        return convertToDTO(contact);
+            contact = contactRepository.save(contact);
+            ContactDTO updated = convertToDTO(contact);
+            eventPublisher.publishEvent(new ContactChangeEvent(userId, ContactChangeEvent.Type.UPDATED,
+                    updated.getId(), updated));
+            cacheInvalidationBus.publish(CacheInvalidationBus.CONTACTS, String.valueOf(userId));
+            return updated;
+        });
     }
 
     /**
      * Delete a contact
      */
+    @Transactional
     public void deleteContact(Long contactId, Long userId) {
-        Contact contact = contactRepository.findById(contactId)
-                .orElseThrow(() -> new RuntimeException("Contact not found"));
+        OperationTimers.run(deleteTimer, () -> {
+            Contact contact = contactRepository.findById(contactId)
+                    .orElseThrow(() -> new RuntimeException("Contact not found"));
 
-        // Check if contact belongs to user
-        if (!contact.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized: Contact does not belong to user");
-        }
+            // Check if contact belongs to user
+            if (!contact.getUser().getId().equals(userId)) {
+                throw new RuntimeException("Unauthorized: Contact does not belong to user");
+            }
 
-        contactRepository.delete(contact);
+            contactRepository.delete(contact);
+            eventPublisher.publishEvent(new ContactChangeEvent(userId, ContactChangeEvent.Type.DELETED,
+                    contactId, null));
+            cacheInvalidationBus.publish(CacheInvalidationBus.CONTACTS, String.valueOf(userId));
+        });
     }
 
     /**
-     * Get all contacts for a user
+     * Write all contacts of a user to out as an array
+     * Rows go from the database cursor straight to the stream, so the connection is held until
+     * the response body has been written.
+     * @param fields Fields to write, see ContactJsonWriter.Field.parse
+     * @param mediaType JSON or a binary encoding, one of ContactJsonWriter.MEDIA_TYPES
      */
-    public List<ContactDTO> getAllContacts(Long userId) {
-        User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Transactional(readOnly = true)
+    public void writeAllContacts(Long userId, Set<ContactJsonWriter.Field> fields, MediaType mediaType,
+                                 OutputStream out) throws IOException {
+        OperationTimers.run(listTimer, () -> {
+            if (!userService.exists(userId)) {
+                throw new RuntimeException("User not found");
+            }
 
-        List<Contact> contacts = contactRepository.findByUser(user);
-        return contacts.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+            contactJsonWriter.writeByUserId(userId, fields, mediaType, out);
+        });
     }
 
     /**
-     * Search contacts by keyword
+     * Search contacts by keyword, one page at a time, writing the page to out as an array
+     * With the fulltext engine results are ordered by relevance; keywords without a word long enough
+     * for the FULLTEXT index fall back to the substring search, which is ordered by name.
+     * @return Whether another page follows
      */
-    public List<ContactDTO> searchContacts(Long userId, String keyword) {
-        User user = userService.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    @Transactional(readOnly = true)
+    public boolean writeSearchContacts(Long userId, String keyword, int page, int size,
+                                       Set<ContactJsonWriter.Field> fields, MediaType mediaType,
+                                       OutputStream out) throws IOException {
+        return OperationTimers.record(searchTimer, () -> {
+            if (!userService.exists(userId)) {
+                throw new RuntimeException("User not found");
+            }
+            Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, maxPageSize)));
 
-        List<Contact> contacts = contactRepository.searchContacts(user, keyword);
-        return contacts.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+            if ("fulltext".equalsIgnoreCase(searchEngine)) {
+                String query = FullTextQuery.booleanMode(keyword, fullTextMinWordLength);
+                if (query != null) {
+                    return contactJsonWriter.writeFullTextSearch(userId, query, pageable, fields, mediaType, out);
+                }
+            }
+            return contactJsonWriter.writeSearch(userId, keyword, pageable, fields, mediaType, out);
+        });
+    }
+
+    /**
+     * Get the contacts of all users, keyed by user id (for admin)
+     * One query for all users, reading only the requested columns.
+     * @param fields Fields to read, see ContactJsonWriter.Field.parse
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<Map<String, Object>>> getAllContactsByUser(Set<ContactJsonWriter.Field> fields) {
+        return OperationTimers.record(adminListTimer, () -> {
+            return contactJsonWriter.readAllByUser(fields);
+        });
     }
 
     /**
-     * Get all contacts for a user (for admin)
+     * Write all contacts of a user to out as an array (for admin)
      */
-    public List<ContactDTO> getAllContactsByUserId(Long userId) {
-        List<Contact> contacts = contactRepository.findByUserId(userId);
-        return contacts.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void writeAllContactsByUserId(Long userId, Set<ContactJsonWriter.Field> fields, MediaType mediaType,
+                                         OutputStream out) throws IOException {
+        OperationTimers.run(adminListTimer, () -> {
+            contactJsonWriter.writeByUserId(userId, fields, mediaType, out);
+        });
     }
 
     /**
@@ -1,28 +1,135 @@
 package com.smartcontactmanager.service;
 
+import com.smartcontactmanager.storage.FlatImageStore;
+import com.smartcontactmanager.storage.ImageStore;
+import com.smartcontactmanager.storage.LocalShardedImageStore;
+import com.smartcontactmanager.storage.StoredObject;
+import com.smartcontactmanager.util.OperationTimers;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Service for handling file uploads (user profile images)
+ * Images live in the configured {@link ImageStore}; images from older layouts are still read
+ * from their old location until {@link StorageMigrationService} has moved them.
  */
 @Service
 public class FileStorageService {
 
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    // Prefix of stored image paths as kept in users.image_path
+    public static final String IMAGE_PATH_PREFIX = "uploads/";
+
+    // Prefix of in-progress uploads inside the upload directory
+    static final String TEMP_FILE_PREFIX = ".upload-";
+
+    // Maximum size of a stored image (5MB)
+    public static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    // Enough leading bytes to recognise every accepted image format
+    private static final int MAGIC_BYTES_LENGTH = 12;
+
+    // Sizes (longest side in pixels) of the resized variants kept next to each original
+    public static final int[] VARIANT_SIZES = {64, 128, 256};
+
+    // Stored originals are the hex SHA-256 of the content plus the extension
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("^([0-9a-f]{64})\\.[a-z0-9]+$");
+
+    // Originals and their variants (<hash>_<size>.jpg); group 1 is unique per stored file
+    private static final Pattern IMMUTABLE_NAME = Pattern.compile("^([0-9a-f]{64}(?:_[0-9]+)?)\\.[a-z0-9]+$");
+
+    // Resized variants; group 1 is the hash of the original they were made from
+    private static final Pattern VARIANT_NAME = Pattern.compile("^([0-9a-f]{64})_[0-9]+\\.jpg$");
+
+    // Extensions given to stored originals by detectImageExtension
+    private static final String[] IMAGE_EXTENSIONS = {".jpg", ".png", ".gif", ".webp"};
+
+    // Names accepted from clients (no path separators, no leading dot)
+    private static final Pattern VALID_FILENAME = Pattern.compile("^[A-Za-z0-9][A-Za-z0-9._-]*$");
+
+    // Upper bound for the content type cache so it cannot grow with the uploads directory
+    private static final int CONTENT_TYPE_CACHE_LIMIT = 10_000;
+
     @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
+    @Autowired
+    private ImageCache imageCache;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer storeTimer;
+    private Timer deleteTimer;
+    private Timer statTimer;
+    private Timer openTimer;
+    private DistributionSummary uploadSize;
+
+    // Older layouts that are still read from (and cleaned up on delete) until migrated
+    private List<ImageStore> legacyStores;
+
+    // Resolved content type per stored filename
+    private final Map<String, String> contentTypeCache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        Path uploadPath = Paths.get(uploadDir);
+        legacyStores = new ArrayList<>();
+        legacyStores.add(new FlatImageStore(uploadPath));
+        if (!(imageStore instanceof LocalShardedImageStore)) {
+            legacyStores.add(new LocalShardedImageStore(uploadPath));
+        }
+
+        OperationTimers timers = new OperationTimers(meterRegistry, "files.operation",
+                "Time spent in image file operations");
+        storeTimer = timers.register("store");
+        deleteTimer = timers.register("delete");
+        statTimer = timers.register("stat");
+        openTimer = timers.register("open");
+        uploadSize = DistributionSummary.builder("files.upload.size")
+                .description("Size of stored uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
     /**
      * Store user profile image
+     * The client supplied content type is not trusted, the content is validated by {@link #storeStream}.
      * @param file The uploaded file
-     * @param userId The user ID to create unique filename
+     * @param userId The user ID the image is uploaded for
      * @return The file path relative to upload directory
      * @throws IOException if file operations fail
      */
@@ -31,37 +138,67 @@ public class FileStorageService {
             throw new RuntimeException("File is empty");
         }
 
-        // Validate file type
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new RuntimeException("Only image files are allowed");
-        }
-
-        // Validate file size (max 5MB)
-        if (file.getSize() > 5 * 1024 * 1024) {
+        // Validate file size (max 5MB) before reading anything
+        if (file.getSize() > MAX_FILE_SIZE) {
             throw new RuntimeException("File size exceeds 5MB limit");
         }
 
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        try (InputStream in = file.getInputStream()) {
+            return storeStream(in, userId);
         }
+    }
 
-        // Generate unique filename: userId_timestamp_originalName
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        String uniqueFilename = userId + "_" + System.currentTimeMillis() + extension;
+    /**
+     * Store user profile image from a stream
+     * The stream is copied to a temp file through a small buffer, so an upload never sits on the heap.
+     * The image type is detected from the magic bytes of the first chunk and the 5MB limit is enforced
+     * while copying. The file is named after the SHA-256 of its content, so a stored name never changes
+     * meaning and can be cached by clients forever; identical uploads share one file.
+     * @param input The image content
+     * @param userId The user ID the image is uploaded for
+     * @return The file path relative to upload directory
+     * @throws IOException if file operations fail
+     */
+    public String storeStream(InputStream input, Long userId) throws IOException {
+        return OperationTimers.record(storeTimer, () -> {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read = input.readNBytes(buffer, 0, MAGIC_BYTES_LENGTH);
+            if (read == 0) {
+                throw new RuntimeException("File is empty");
+            }
+            String extension = detectImageExtension(buffer, read);
+            if (extension == null) {
+                throw new RuntimeException("Only image files are allowed");
+            }
 
-        // Save file
-        Path targetLocation = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            // Copy to a temp file while hashing, then move it to its content-addressed name
+            Path tempFile = createTempFile();
+            try {
+                MessageDigest digest = newContentDigest();
+                long total = 0;
+                try (OutputStream out = Files.newOutputStream(tempFile)) {
+                    do {
+                        total += read;
+                        if (total > MAX_FILE_SIZE) {
+                            throw new RuntimeException("File size exceeds 5MB limit");
+                        }
+                        digest.update(buffer, 0, read);
+                        out.write(buffer, 0, read);
+                    } while ((read = input.read(buffer)) != -1);
+                }
+                String uniqueFilename = HexFormat.of().formatHex(digest.digest()) + extension;
+                uploadSize.record(total);
+
+                // Identical content is replaced rather than skipped: the fresh modification time keeps
+                // OrphanImageCollector from deleting a file that is about to be referenced again
+                commitTempFile(tempFile, uniqueFilename);
 
-        // Return relative path for URL construction
-        return "uploads/" + uniqueFilename;
+                // Return relative path for URL construction
+                return IMAGE_PATH_PREFIX + uniqueFilename;
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        });
     }
 
     /**
@@ -69,19 +206,31 @@ public class FileStorageService {
      * @param filePath The file path to delete (can be relative like "uploads/filename.jpg" or just "filename.jpg")
      */
     public void deleteFile(String filePath) {
-        try {
-            if (filePath != null && !filePath.isEmpty()) {
-                // Handle both relative paths (uploads/filename.jpg) and just filename
-                String filename = filePath.contains("/") ? filePath.substring(filePath.lastIndexOf("/") + 1) : filePath;
-                Path fileToDelete = Paths.get(uploadDir).resolve(filename);
-                if (Files.exists(fileToDelete)) {
-                    Files.delete(fileToDelete);
+        OperationTimers.run(deleteTimer, () -> {
+            try {
+                if (filePath != null && !filePath.isEmpty()) {
+                    // Handle both relative paths (uploads/filename.jpg) and just filename
+                    String filename = filePath.contains("/") ? filePath.substring(filePath.lastIndexOf("/") + 1) : filePath;
+                    if (!isValidFilename(filename)) {
+                        return;
+                    }
+                    List<String> filenames = new ArrayList<>();
+                    filenames.add(filename);
+                    filenames.addAll(getVariantFilenames(filename));
+                    for (String name : filenames) {
+                        contentTypeCache.remove(name);
+                        imageCache.invalidate(name);
+                        imageStore.delete(name);
+                        for (ImageStore legacyStore : legacyStores) {
+                            legacyStore.delete(name);
+                        }
+                    }
                 }
+            } catch (IOException e) {
+                // Don't throw - file deletion is not critical, OrphanImageCollector removes leftovers later
+                log.warn("Failed to delete file {}: {}", filePath, e.getMessage());
             }
-        } catch (IOException e) {
-            // Log error but don't throw - file deletion is not critical
-            System.err.println("Failed to delete file: " + filePath);
-        }
+        });
     }
 
     /**
@@ -93,11 +242,299 @@ public class FileStorageService {
     }
 
     /**
-     * Get file path by filename
+     * Check whether a name can refer to a stored image
+     * @param filename The filename from the client
+     * @return false for names that could escape the store (separators, "..", hidden files)
+     */
+    public boolean isValidFilename(String filename) {
+        return filename != null && VALID_FILENAME.matcher(filename).matches();
+    }
+
+    /**
+     * Get the metadata of a stored image
      * @param filename The filename
-     * @return Full path to the file
+     * @return The metadata, or null if the image does not exist
+     * @throws IOException if the store cannot be reached
      */
-    public Path getFilePath(String filename) {
-        return Paths.get(uploadDir).resolve(filename);
+    public StoredObject stat(String filename) throws IOException {
+        return OperationTimers.record(statTimer, () -> {
+            ImageStore store = findStore(filename);
+            return store != null ? store.stat(filename) : null;
+        });
+    }
+
+    /**
+     * Check whether an image exists
+     */
+    public boolean exists(String filename) throws IOException {
+        return findStore(filename) != null;
+    }
+
+    /**
+     * Open a stored image for reading
+     * @param filename The filename
+     * @return A stream over the image, which the caller must close
+     * @throws IOException if the image does not exist or cannot be read
+     */
+    public InputStream openFile(String filename) throws IOException {
+        return OperationTimers.record(openTimer, () -> {
+            ImageStore store = findStore(filename);
+            if (store == null) {
+                throw new NoSuchFileException(filename);
+            }
+            return store.open(filename);
+        });
+    }
+
+    /**
+     * Get a stored image as a Resource for streaming responses
+     * @param filename The filename
+     * @param stored The metadata returned by {@link #stat(String)}
+     * @return A Resource that opens the image on each read
+     */
+    public Resource getResource(String filename, StoredObject stored) {
+        return new AbstractResource() {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return openFile(filename);
+            }
+
+            @Override
+            public long contentLength() {
+                return stored.getSize();
+            }
+
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+
+            @Override
+            public String getDescription() {
+                return "Stored image [" + filename + "]";
+            }
+        };
+    }
+
+    /**
+     * Get the active image store
+     */
+    public ImageStore getImageStore() {
+        return imageStore;
+    }
+
+    /**
+     * Get the older layouts that images are still read from until migrated
+     */
+    public List<ImageStore> getLegacyStores() {
+        return legacyStores;
+    }
+
+    /**
+     * Find the store holding an image, checking the active store first
+     */
+    private ImageStore findStore(String filename) throws IOException {
+        if (!isValidFilename(filename)) {
+            return null;
+        }
+        if (isImmutableName(filename) && imageStore.stat(filename) != null) {
+            return imageStore;
+        }
+        for (ImageStore legacyStore : legacyStores) {
+            if (legacyStore.stat(filename) != null) {
+                return legacyStore;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the content type of a stored image
+     * Resolved once per filename and cached, so serving an image does not probe the file again
+     * @param filename The filename
+     * @return The MIME type of the image
+     */
+    public String getContentType(String filename) {
+        String contentType = contentTypeCache.get(filename);
+        if (contentType == null) {
+            contentType = resolveContentType(filename);
+            if (contentTypeCache.size() >= CONTENT_TYPE_CACHE_LIMIT) {
+                contentTypeCache.clear();
+            }
+            contentTypeCache.put(filename, contentType);
+        }
+        return contentType;
+    }
+
+    /**
+     * Probe the content type of a file, falling back to its extension
+     */
+    private String resolveContentType(String filename) {
+        String contentType = null;
+        try {
+            contentType = Files.probeContentType(Paths.get(filename));
+        } catch (IOException e) {
+            // Fall back to the extension below
+        }
+        if (contentType != null) {
+            return contentType;
+        }
+
+        String lowerCaseName = filename.toLowerCase();
+        if (lowerCaseName.endsWith(".png")) {
+            return "image/png";
+        } else if (lowerCaseName.endsWith(".gif")) {
+            return "image/gif";
+        } else if (lowerCaseName.endsWith(".webp")) {
+            return "image/webp";
+        }
+        return "image/jpeg";
+    }
+
+    /**
+     * Get the strong ETag of a stored image
+     * Content-addressed names carry their own hash, so no file access is needed
+     * @param filename The filename
+     * @return The quoted ETag, or null for legacy names that are not content-addressed
+     */
+    public String getETag(String filename) {
+        Matcher matcher = IMMUTABLE_NAME.matcher(filename);
+        return matcher.matches() ? "\"" + matcher.group(1) + "\"" : null;
+    }
+
+    /**
+     * Check whether a name is content-addressed (an original or one of its variants)
+     * Only these names are written to the active store; anything else is a legacy upload.
+     */
+    public boolean isImmutableName(String filename) {
+        return IMMUTABLE_NAME.matcher(filename).matches();
+    }
+
+    /**
+     * Get the name of the smallest variant that is at least the requested size
+     * @param filename The original filename
+     * @param size The requested size in pixels
+     * @return The variant filename, or null when the original should be served
+     */
+    public String getVariantFilename(String filename, int size) {
+        Matcher matcher = CONTENT_ADDRESSED_NAME.matcher(filename);
+        if (!matcher.matches()) {
+            return null;
+        }
+        for (int variantSize : VARIANT_SIZES) {
+            if (variantSize >= size) {
+                return matcher.group(1) + "_" + variantSize + ".jpg";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the names of all variants of an original image
+     * @param filename The original filename
+     * @return The variant filenames, empty for names that do not get variants
+     */
+    public List<String> getVariantFilenames(String filename) {
+        Matcher matcher = CONTENT_ADDRESSED_NAME.matcher(filename);
+        if (!matcher.matches()) {
+            return List.of();
+        }
+        List<String> variants = new ArrayList<>(VARIANT_SIZES.length);
+        for (int variantSize : VARIANT_SIZES) {
+            variants.add(matcher.group(1) + "_" + variantSize + ".jpg");
+        }
+        return variants;
+    }
+
+    /**
+     * Get the users.image_path values that keep a stored file alive
+     * A variant is referenced through its original, whose extension is not part of the variant name.
+     * @param filename The stored filename
+     * @return The image paths that reference the file
+     */
+    public List<String> getReferencingImagePaths(String filename) {
+        Matcher matcher = VARIANT_NAME.matcher(filename);
+        if (!matcher.matches()) {
+            return List.of(IMAGE_PATH_PREFIX + filename);
+        }
+        List<String> paths = new ArrayList<>(IMAGE_EXTENSIONS.length);
+        for (String extension : IMAGE_EXTENSIONS) {
+            paths.add(IMAGE_PATH_PREFIX + matcher.group(1) + extension);
+        }
+        return paths;
+    }
+
+    /**
+     * Create a temp file inside the upload directory
+     * Files are written here first and then committed with an atomic move, so readers never
+     * see a partially written image
+     * @return Path to the new temp file
+     * @throws IOException if file operations fail
+     */
+    public Path createTempFile() throws IOException {
+        Path uploadPath = Paths.get(uploadDir);
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+        }
+        return Files.createTempFile(uploadPath, TEMP_FILE_PREFIX, ".tmp");
+    }
+
+    /**
+     * Commit a temp file to the image store under its final name
+     * @param tempFile The temp file created by {@link #createTempFile()}
+     * @param filename The final filename
+     * @throws IOException if file operations fail
+     */
+    public void commitTempFile(Path tempFile, String filename) throws IOException {
+        imageStore.put(filename, tempFile);
+        imageCache.invalidate(filename);
+    }
+
+    /**
+     * Detect the image format from the leading bytes of a file
+     * @return The extension for the detected format, or null if it is not an accepted image
+     */
+    private static String detectImageExtension(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return ".jpg";
+        }
+        if (startsWith(header, length, 0, new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})) {
+            return ".png";
+        }
+        if (startsWith(header, length, 0, new byte[]{'G', 'I', 'F', '8', '7', 'a'})
+                || startsWith(header, length, 0, new byte[]{'G', 'I', 'F', '8', '9', 'a'})) {
+            return ".gif";
+        }
+        if (startsWith(header, length, 0, new byte[]{'R', 'I', 'F', 'F'})
+                && startsWith(header, length, 8, new byte[]{'W', 'E', 'B', 'P'})) {
+            return ".webp";
+        }
+        return null;
+    }
+
+    /**
+     * Check whether the header contains the given bytes at an offset
+     */
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] magic) {
+        if (length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[offset + i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create the digest used for content-addressed names
+     */
+    private static MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,238 @@
+package com.smartcontactmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartcontactmanager.cache.CacheInvalidationBus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded cache of hot image bytes
+ * Bytes are held in direct buffers outside the Java heap, so a full cache adds no GC work.
+ * Eviction is Caffeine's W-TinyLFU weighted by image size. An evicted buffer's memory is only
+ * released when the GC collects the buffer, so direct memory in use can exceed
+ * image.cache.max-bytes for a while; -XX:MaxDirectMemorySize (default: the max heap size) needs
+ * headroom above it, or allocations fail with OutOfMemoryError: Direct buffer memory.
+ */
+@Service
+public class ImageCache {
+
+    @Value("${image.cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${image.cache.max-entry-bytes:262144}")
+    private long maxEntryBytes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private Cache<String, CachedImage> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String filename, CachedImage image) -> image.size())
+                .recordStats()
+                .build();
+
+        // Hits, misses, evictions and size as cache_* metrics tagged cache="images"
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "images");
+        Gauge.builder("images.cache.resident", this, ImageCache::getBytesResident)
+                .description("Image bytes held off-heap by the hot image cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.IMAGES, (filename, remote) -> cache.invalidate(filename));
+    }
+
+    /**
+     * Get a cached image
+     * @param filename The stored filename
+     * @return The cached image, or null on a miss
+     */
+    public CachedImage get(String filename) {
+        return cache.getIfPresent(filename);
+    }
+
+    /**
+     * Check whether an image of this size is admitted to the cache
+     */
+    public boolean accepts(long size) {
+        return size > 0 && size <= maxEntryBytes;
+    }
+
+    /**
+     * Read an image into a direct buffer and add it to the cache
+     * Called after a miss from {@link #get(String)}; concurrent loads of the same file are harmless.
+     * @param filename The stored filename
+     * @param input The image content, closed by this method
+     * @param size The size of the image in bytes
+     * @param lastModified Last modification time of the file in milliseconds
+     * @return The cached image
+     * @throws IOException if the image cannot be read
+     */
+    public CachedImage load(String filename, InputStream input, long size, long lastModified) throws IOException {
+        CachedImage image = new CachedImage(readDirect(input, size), lastModified);
+        cache.put(filename, image);
+        return image;
+    }
+
+    /**
+     * Drop an image from the cache, on every instance
+     * @param filename The stored filename
+     */
+    public void invalidate(String filename) {
+        cacheInvalidationBus.publish(CacheInvalidationBus.IMAGES, filename);
+    }
+
+    /**
+     * Get cache statistics
+     * @return Hit ratio, request counts, evictions and resident bytes
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("entries", cache.estimatedSize());
+        result.put("bytesResident", getBytesResident());
+        result.put("maxBytes", maxBytes);
+        return result;
+    }
+
+    /**
+     * Get the number of image bytes currently held by the cache
+     */
+    public long getBytesResident() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    /**
+     * Read a whole stream into a read-only direct buffer
+     */
+    private static ByteBuffer readDirect(InputStream input, long size) throws IOException {
+        try (ReadableByteChannel channel = Channels.newChannel(input)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(Math.toIntExact(size));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the buffer is full or the stream ends
+            }
+            buffer.flip();
+            return buffer.asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * Image bytes held by the cache
+     */
+    public static class CachedImage {
+        private final ByteBuffer data;
+        private final long lastModified;
+
+        public CachedImage(ByteBuffer data, long lastModified) {
+            this.data = data;
+            this.lastModified = lastModified;
+        }
+
+        public int size() {
+            return data.remaining();
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Expose the bytes as a Resource so they can be written (or sliced for Range requests)
+         * Each read gets its own view of the shared buffer. The message converter copies them
+         * through a small heap buffer on the way to the response, so a hit still copies the
+         * image once, but the cached copy itself stays off-heap.
+         */
+        public Resource asResource(String filename) {
+            return new AbstractResource() {
+                @Override
+                public InputStream getInputStream() {
+                    return new ByteBufferInputStream(data.duplicate());
+                }
+
+                @Override
+                public long contentLength() {
+                    return data.remaining();
+                }
+
+                @Override
+                public String getFilename() {
+                    return filename;
+                }
+
+                @Override
+                public String getDescription() {
+                    return "Cached image [" + filename + "]";
+                }
+            };
+        }
+    }
+
+    /**
+     * InputStream over a private view of a cached buffer
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.smartcontactmanager.service;
+
+import com.smartcontactmanager.config.BackgroundThreads;
+import com.smartcontactmanager.util.OperationTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service that generates resized variants of uploaded images in the background
+ * Variants are JPEGs named <hash>_<size>.jpg next to the original (see {@link FileStorageService#VARIANT_SIZES})
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    // Images above this many pixels are not decoded (protects the heap from decompression bombs)
+    private static final long MAX_SOURCE_PIXELS = 40_000_000L;
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Value("${image.variants.threads:2}")
+    private int threads;
+
+    @Value("${image.variants.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer generateTimer;
+
+    // Originals with a generation task queued or running
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        ImageIO.setUseCache(false);
+        // The pool stays bounded with virtual threads too: resizing is CPU and heap heavy
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                backgroundThreads.newThreadFactory("image-variants-"));
+        executor.allowCoreThreadTimeOut(true);
+
+        generateTimer = Timer.builder("images.variants.generate")
+                .description("Time spent generating the resized variants of an image")
+                .register(meterRegistry);
+        meterRegistry.gauge("images.variants.queued", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue generation of the variants of an image
+     * Returns immediately. Requests for an image that is already queued are ignored, and
+     * when the queue is full the image is skipped (it is served as the original until a
+     * later request queues it again).
+     * @param filename The original filename
+     */
+    public void generateVariantsAsync(String filename) {
+        if (fileStorageService.getVariantFilenames(filename).isEmpty() || !pending.add(filename)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateVariants(filename);
+                } catch (Exception e) {
+                    log.warn("Failed to generate variants for {}: {}", filename, e.getMessage());
+                } finally {
+                    pending.remove(filename);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(filename);
+            log.warn("Image variant queue is full, skipping {}", filename);
+        }
+    }
+
+    /**
+     * Generate the variants of an image that do not exist yet
+     * Safe to run repeatedly: existing variants are kept and each new one is committed atomically.
+     * @param filename The original filename
+     * @throws IOException if file operations fail
+     */
+    public void generateVariants(String filename) throws IOException {
+        OperationTimers.run(generateTimer, () -> {
+            List<String> variants = fileStorageService.getVariantFilenames(filename);
+            boolean missing = false;
+            for (String variant : variants) {
+                if (!fileStorageService.exists(variant)) {
+                    missing = true;
+                    break;
+                }
+            }
+            if (!missing) {
+                return;
+            }
+
+            BufferedImage source;
+            try (InputStream input = fileStorageService.openFile(filename)) {
+                source = readImage(input);
+            }
+            if (source == null) {
+                // No ImageIO reader for this format, the original keeps being served
+                return;
+            }
+
+            for (int i = 0; i < variants.size(); i++) {
+                String variant = variants.get(i);
+                if (fileStorageService.exists(variant)) {
+                    continue;
+                }
+                BufferedImage resized = resize(source, FileStorageService.VARIANT_SIZES[i]);
+                Path tempFile = fileStorageService.createTempFile();
+                try {
+                    writeJpeg(resized, tempFile);
+                    fileStorageService.commitTempFile(tempFile, variant);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        });
+    }
+
+    /**
+     * Decode an image after checking its dimensions
+     */
+    private BufferedImage readImage(InputStream source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Image too large to resize: " + pixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale an image so its longest side fits the given size, on a white background
+     * Large reductions are done in halving steps to avoid aliasing.
+     */
+    private BufferedImage resize(BufferedImage source, int size) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) size / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    /**
+     * Encode an image as JPEG
+     */
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
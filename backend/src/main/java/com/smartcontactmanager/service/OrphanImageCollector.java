@@ -0,0 +1,266 @@
+package com.smartcontactmanager.service;
+
+import com.smartcontactmanager.config.BackgroundThreads;
+import com.smartcontactmanager.storage.ImageStore;
+import com.smartcontactmanager.storage.StoredObject;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scheduled sweeper that removes image files no user references any more
+ * (replaced images, images of deleted users, abandoned uploads).
+ * Store listings are streamed and checked against users.image_path in batches; files younger
+ * than the grace period are kept so uploads that are not committed to a user yet survive.
+ * Deletes are rate limited to keep the sweep in the background. The sweep runs on its own thread,
+ * so a long, throttled sweep does not hold up the other @Scheduled jobs (e.g. the contact stream
+ * heartbeat), which share Spring's single scheduler thread.
+ */
+@Service
+public class OrphanImageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanImageCollector.class);
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ImageCache imageCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Value("${image.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.gc.grace-period-ms:86400000}")
+    private long gracePeriodMillis;
+
+    @Value("${image.gc.batch-size:200}")
+    private int batchSize;
+
+    @Value("${image.gc.max-deletes-per-second:20}")
+    private int maxDeletesPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong filesScanned = new AtomicLong();
+    private final AtomicLong filesDeleted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private volatile Long lastRunAt;
+    private volatile Long lastRunMillis;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        // One sweep at a time: a trigger while a sweep is running is dropped
+        executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                backgroundThreads.newThreadFactory("orphan-image-gc-"), new ThreadPoolExecutor.DiscardPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        FunctionCounter.builder("images.gc.reclaimed", bytesReclaimed, AtomicLong::get)
+                .description("Bytes freed by deleting unreferenced image files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("images.gc.deleted", filesDeleted, AtomicLong::get)
+                .description("Unreferenced image files deleted")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start a sweep on the collector's thread and return right away
+     */
+    @Scheduled(initialDelayString = "${image.gc.initial-delay-ms:600000}",
+            fixedDelayString = "${image.gc.interval-ms:3600000}")
+    public void scheduledSweep() {
+        if (enabled) {
+            executor.execute(this::sweep);
+        }
+    }
+
+    /**
+     * Run one sweep over the active and legacy stores
+     * Returns immediately if a sweep is already running.
+     */
+    public void sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long cutoff = start - gracePeriodMillis;
+        long deletedBefore = filesDeleted.get();
+        long bytesBefore = bytesReclaimed.get();
+        try {
+            sweepTempFiles(cutoff);
+            List<ImageStore> stores = new ArrayList<>();
+            stores.add(fileStorageService.getImageStore());
+            stores.addAll(fileStorageService.getLegacyStores());
+            for (ImageStore store : stores) {
+                sweepStore(store, cutoff);
+            }
+        } catch (InterruptedIOException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Orphan image sweep interrupted");
+        } catch (Exception e) {
+            log.error("Orphan image sweep stopped: {}", e.getMessage());
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = start;
+            lastRunMillis = System.currentTimeMillis() - start;
+            running.set(false);
+        }
+        log.info("Orphan image sweep removed {} files ({} bytes) in {} ms",
+                filesDeleted.get() - deletedBefore, bytesReclaimed.get() - bytesBefore, lastRunMillis);
+    }
+
+    /**
+     * Get collector statistics
+     * @return Totals since startup and details of the last run
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("filesScanned", filesScanned.get());
+        stats.put("filesDeleted", filesDeleted.get());
+        stats.put("bytesReclaimed", bytesReclaimed.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunMillis", lastRunMillis);
+        return stats;
+    }
+
+    /**
+     * Get the total number of bytes freed since startup
+     */
+    public long getBytesReclaimed() {
+        return bytesReclaimed.get();
+    }
+
+    /**
+     * Remove temp files left behind by uploads that never finished
+     */
+    private void sweepTempFiles(long cutoff) throws IOException {
+        Path uploadPath = fileStorageService.getUploadPath();
+        if (!Files.isDirectory(uploadPath)) {
+            return;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(uploadPath, FileStorageService.TEMP_FILE_PREFIX + "*")) {
+            for (Path entry : entries) {
+                filesScanned.incrementAndGet();
+                BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                if (attributes.isRegularFile() && attributes.lastModifiedTime().toMillis() < cutoff
+                        && Files.deleteIfExists(entry)) {
+                    reclaimed(attributes.size());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream the keys of a store and check them in batches
+     */
+    private void sweepStore(ImageStore store, long cutoff) throws IOException {
+        List<String> batch = new ArrayList<>(batchSize);
+        store.forEachKey(key -> {
+            batch.add(key);
+            if (batch.size() >= batchSize) {
+                collectBatch(store, batch, cutoff);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            collectBatch(store, batch, cutoff);
+        }
+    }
+
+    /**
+     * Delete the unreferenced files of one batch with a single users lookup
+     */
+    private void collectBatch(ImageStore store, List<String> keys, long cutoff) throws IOException {
+        filesScanned.addAndGet(keys.size());
+        Set<String> paths = new HashSet<>();
+        for (String key : keys) {
+            paths.addAll(fileStorageService.getReferencingImagePaths(key));
+        }
+        Set<String> referenced = userService.findReferencedImagePaths(paths);
+
+        for (String key : keys) {
+            if (isReferenced(key, referenced)) {
+                continue;
+            }
+            StoredObject stored = store.stat(key);
+            if (stored == null || stored.getLastModified() >= cutoff) {
+                continue;
+            }
+            store.delete(key);
+            imageCache.invalidate(key);
+            reclaimed(stored.getSize());
+            throttle();
+        }
+    }
+
+    private boolean isReferenced(String key, Set<String> referenced) {
+        for (String path : fileStorageService.getReferencingImagePaths(key)) {
+            if (referenced.contains(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reclaimed(long bytes) {
+        filesDeleted.incrementAndGet();
+        bytesReclaimed.addAndGet(bytes);
+    }
+
+    /**
+     * Space deletes out to at most maxDeletesPerSecond
+     */
+    private void throttle() throws InterruptedIOException {
+        if (maxDeletesPerSecond <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(1000L / maxDeletesPerSecond);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Orphan image sweep interrupted");
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.smartcontactmanager.service;
+
+import com.smartcontactmanager.config.BackgroundThreads;
+import com.smartcontactmanager.storage.ImageStore;
+import com.smartcontactmanager.storage.StoredObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves images from older layouts (flat upload directory, local disk when S3 is active)
+ * into the active image store while the application keeps serving.
+ * Reads fall back to the old location until an image has been moved, and user references
+ * are rewritten before the old copy is deleted, so no request sees a missing image.
+ */
+@Service
+public class StorageMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageMigrationService.class);
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    // Pause between files so the migration does not saturate disk or network
+    @Value("${file.storage.migration.pause-ms:10}")
+    private long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytesMoved = new AtomicLong();
+    private volatile Long startedAt;
+    private volatile Long finishedAt;
+
+    /**
+     * Start a migration in the background
+     * @return false if a migration is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        migrated.set(0);
+        skipped.set(0);
+        failed.set(0);
+        bytesMoved.set(0);
+        startedAt = System.currentTimeMillis();
+        finishedAt = null;
+
+        backgroundThreads.newThreadFactory("storage-migration-").newThread(this::run).start();
+        return true;
+    }
+
+    /**
+     * Get the progress of the current or last migration
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("migrated", migrated.get());
+        status.put("skipped", skipped.get());
+        status.put("failed", failed.get());
+        status.put("bytesMoved", bytesMoved.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        return status;
+    }
+
+    private void run() {
+        try {
+            for (ImageStore source : fileStorageService.getLegacyStores()) {
+                source.forEachKey(key -> migrate(source, key));
+            }
+            log.info("Storage migration finished: {}", getStatus());
+        } catch (MigrationInterruptedException e) {
+            log.warn("Storage migration interrupted: {}", getStatus());
+        } catch (Exception e) {
+            log.error("Storage migration stopped: {}", e.getMessage());
+        } finally {
+            finishedAt = System.currentTimeMillis();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Move one image into the active store
+     */
+    private void migrate(ImageStore source, String key) {
+        try {
+            StoredObject stored = source.stat(key);
+            if (stored == null) {
+                return;
+            }
+
+            if (fileStorageService.isImmutableName(key)) {
+                // Content-addressed: same key in the new store, references stay valid
+                if (fileStorageService.getImageStore().stat(key) == null) {
+                    Path tempFile = fileStorageService.createTempFile();
+                    try {
+                        try (InputStream in = source.open(key)) {
+                            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                        fileStorageService.commitTempFile(tempFile, key);
+                    } finally {
+                        Files.deleteIfExists(tempFile);
+                    }
+                }
+            } else {
+                // Legacy name: store under its content hash and repoint the users first
+                String imagePath;
+                try (InputStream in = source.open(key)) {
+                    imagePath = fileStorageService.storeStream(in, null);
+                } catch (RuntimeException e) {
+                    log.warn("Skipping {} during storage migration: {}", key, e.getMessage());
+                    skipped.incrementAndGet();
+                    return;
+                }
+                userService.replaceImagePath(FileStorageService.IMAGE_PATH_PREFIX + key, imagePath);
+                imageVariantService.generateVariantsAsync(imagePath.substring(FileStorageService.IMAGE_PATH_PREFIX.length()));
+            }
+
+            source.delete(key);
+            migrated.incrementAndGet();
+            bytesMoved.addAndGet(stored.getSize());
+        } catch (IOException e) {
+            log.warn("Failed to migrate {}: {}", key, e.getMessage());
+            failed.incrementAndGet();
+        }
+
+        if (pauseMillis > 0) {
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MigrationInterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Unwinds the key listing when the migration thread is interrupted
+     */
+    private static class MigrationInterruptedException extends RuntimeException {
+    }
+}
@@ -1,14 +1,29 @@
 package com.smartcontactmanager.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartcontactmanager.cache.CacheInvalidationBus;
+import com.smartcontactmanager.datasource.ReadYourWrites;
 import com.smartcontactmanager.dto.RegisterRequest;
 import com.smartcontactmanager.entity.User;
 import com.smartcontactmanager.repository.UserRepository;
+import com.smartcontactmanager.util.OperationTimers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service layer for User operations
@@ -22,83 +37,201 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${users.cache.max-size:100000}")
+    private long cacheMaxSize;
+
+    // Backstop for invalidations a transport lost
+    @Value("${users.cache.ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    // Ids of users known to exist; only hits are cached, a user id is never reused once deleted
+    private Cache<Long, Boolean> existingUsers;
+
+    private Timer registerTimer;
+    private Timer findByEmailTimer;
+    private Timer findByIdTimer;
+    private Timer listTimer;
+    private Timer deleteTimer;
+    private Timer updateImageTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        OperationTimers timers = new OperationTimers(meterRegistry, "users.operation",
+                "Time spent in user operations");
+        registerTimer = timers.register("register");
+        findByEmailTimer = timers.register("find_by_email");
+        findByIdTimer = timers.register("find_by_id");
+        listTimer = timers.register("list");
+        deleteTimer = timers.register("delete");
+        updateImageTimer = timers.register("update_image");
+    }
+
+    @PostConstruct
+    public void initCache() {
+        existingUsers = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        // Hits, misses, evictions and size as cache_* metrics tagged cache="users"
+        CaffeineCacheMetrics.monitor(meterRegistry, existingUsers, "users");
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.USERS,
+                (key, remote) -> existingUsers.invalidate(Long.valueOf(key)));
+    }
+
     /**
      * Register a new user
+     * Deliberately not one transaction: hashing the password takes longer than both queries together,
+     * so the check and the insert each hold a connection only briefly (the unique email column
+     * catches a concurrent duplicate).
      */
     public User registerUser(RegisterRequest registerRequest) {
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
-
-        User user = new User();
-        user.setName(registerRequest.getName());
-        user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-        user.setRole("ROLE_USER");
-
-        return userRepository.save(user);
+        return OperationTimers.record(registerTimer, () -> {
+            if (userRepository.existsByEmail(registerRequest.getEmail())) {
+                throw new RuntimeException("Email already exists");
+            }
+
+            User user = new User();
+            user.setName(registerRequest.getName());
+            user.setEmail(registerRequest.getEmail());
+            user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+            user.setRole("ROLE_USER");
+
+            user = userRepository.save(user);
+            // The new account is read back right after login, before a replica may have it
+            readYourWrites.markWrite(user.getId());
+            return user;
+        });
     }
 
     /**
      * Register a new admin user
      */
     public User registerAdmin(RegisterRequest registerRequest) {
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
-
-        User user = new User();
-        user.setName(registerRequest.getName());
-        user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-        user.setRole("ROLE_ADMIN");
-
-        return userRepository.save(user);
+        return OperationTimers.record(registerTimer, () -> {
+            if (userRepository.existsByEmail(registerRequest.getEmail())) {
+                throw new RuntimeException("Email already exists");
+            }
+
+            User user = new User();
+            user.setName(registerRequest.getName());
+            user.setEmail(registerRequest.getEmail());
+            user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+            user.setRole("ROLE_ADMIN");
+
+            user = userRepository.save(user);
+            readYourWrites.markWrite(user.getId());
+            return user;
+        });
     }
 
     /**
      * Find user by email
      */
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return OperationTimers.record(findByEmailTimer, () -> {
+            return userRepository.findByEmail(email);
+        });
     }
 
     /**
      * Find user by ID
      */
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
-        return userRepository.findById(id);
+        return OperationTimers.record(findByIdTimer, () -> {
+            return userRepository.findById(id);
+        });
+    }
+
+    /**
+     * Check whether a user exists
+     * Answered from the cache after the first hit, so reads that only need to know the user is
+     * still there cost no query.
+     */
+    public boolean exists(Long id) {
+        if (id == null) {
+            return false;
+        }
+        if (existingUsers.getIfPresent(id) != null) {
+            return true;
+        }
+        return OperationTimers.record(findByIdTimer, () -> {
+            boolean exists = userRepository.existsById(id);
+            if (exists) {
+                existingUsers.put(id, Boolean.TRUE);
+            }
+            return exists;
+        });
     }
 
     /**
      * Get all users (for admin)
      */
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return OperationTimers.record(listTimer, () -> {
+            return userRepository.findAll();
+        });
     }
 
     /**
      * Delete user by ID
      */
+    @Transactional
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        OperationTimers.run(deleteTimer, () -> {
+            userRepository.deleteById(id);
+            cacheInvalidationBus.publish(CacheInvalidationBus.USERS, String.valueOf(id));
+        });
     }
 
     /**
      * Update user profile image
      */
+    @Transactional
     public User updateUserImage(Long userId, String imagePath) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setImagePath(imagePath);
-        return userRepository.save(user);
+        return OperationTimers.record(updateImageTimer, () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            user.setImagePath(imagePath);
+            return userRepository.save(user);
+        });
+    }
+
+    /**
+     * Get which of the given image paths are referenced by at least one user
+     */
+    public Set<String> findReferencedImagePaths(Collection<String> imagePaths) {
+        return new HashSet<>(userRepository.findImagePathsIn(imagePaths));
+    }
+
+    /**
+     * Point every user referencing an image path at a new one
+     * @return The number of users updated
+     */
+    @Transactional
+    public int replaceImagePath(String oldPath, String newPath) {
+        return userRepository.replaceImagePath(oldPath, newPath);
     }
 
     /**
      * Get current user information
      */
+    @Transactional(readOnly = true)
     public User getCurrentUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return OperationTimers.record(findByIdTimer, () -> {
+            return userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        });
     }
 }
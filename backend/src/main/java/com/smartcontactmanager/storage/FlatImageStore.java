@@ -0,0 +1,66 @@
+package com.smartcontactmanager.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * The original flat upload directory layout (every image directly under the root)
+ * Only used to read and migrate images stored before sharding; hidden files such as
+ * in-progress uploads and the shard directories are not part of it.
+ */
+public class FlatImageStore implements ImageStore {
+
+    private final Path root;
+
+    public FlatImageStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Files.move(source, root.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        Path path = root.resolve(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            return new StoredObject(attributes.size(), attributes.lastModifiedTime().toMillis(), path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(root.resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(root.resolve(key));
+    }
+
+    @Override
+    public void forEachKey(KeyVisitor visitor) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root,
+                path -> !path.getFileName().toString().startsWith(".") && Files.isRegularFile(path))) {
+            for (Path file : files) {
+                visitor.visit(file.getFileName().toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartcontactmanager.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Storage backend for uploaded images
+ * Keys are stored filenames such as "<hash>.png" or "<hash>_64.jpg". Objects are immutable:
+ * a key is written once and only ever read or deleted afterwards.
+ */
+public interface ImageStore {
+
+    /**
+     * Store a fully written local file under a key
+     * The store takes ownership of the source file (it is moved or removed), and readers
+     * never observe a partially written object.
+     * @param key The key to store under
+     * @param source A local temp file with the content
+     * @throws IOException if the object cannot be stored
+     */
+    void put(String key, Path source) throws IOException;
+
+    /**
+     * Get the metadata of a stored object
+     * @param key The key
+     * @return The metadata, or null if nothing is stored under the key
+     * @throws IOException if the store cannot be reached
+     */
+    StoredObject stat(String key) throws IOException;
+
+    /**
+     * Open a stored object for reading
+     * @param key The key
+     * @return A stream over the content, which the caller must close
+     * @throws java.nio.file.NoSuchFileException if nothing is stored under the key
+     * @throws IOException if the store cannot be reached
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Delete a stored object
+     * @param key The key
+     * @throws IOException if the store cannot be reached
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Visit every key in the store, streaming through the listing instead of loading it
+     * @param visitor Called once per key
+     * @throws IOException if the listing fails or the visitor throws
+     */
+    void forEachKey(KeyVisitor visitor) throws IOException;
+
+    /**
+     * Callback for {@link #forEachKey(KeyVisitor)}
+     */
+    @FunctionalInterface
+    interface KeyVisitor {
+        void visit(String key) throws IOException;
+    }
+}
@@ -0,0 +1,104 @@
+package com.smartcontactmanager.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Image store on local disk, sharded by the leading characters of the key
+ * "<hash>.png" is stored as root/ab/cd/<hash>.png, so no directory grows beyond a few
+ * hundred entries even with millions of images.
+ */
+public class LocalShardedImageStore implements ImageStore {
+
+    private final Path root;
+
+    public LocalShardedImageStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        if (target == null) {
+            throw new IllegalArgumentException("Key too short for sharding: " + key);
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        Path path = resolve(key);
+        if (path == null) {
+            return null;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            return new StoredObject(attributes.size(), attributes.lastModifiedTime().toMillis(), path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        Path path = resolve(key);
+        if (path == null) {
+            throw new NoSuchFileException(key);
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Path path = resolve(key);
+        if (path != null) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Override
+    public void forEachKey(KeyVisitor visitor) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (DirectoryStream<Path> level1 = Files.newDirectoryStream(root, LocalShardedImageStore::isShard)) {
+            for (Path shard1 : level1) {
+                try (DirectoryStream<Path> level2 = Files.newDirectoryStream(shard1, LocalShardedImageStore::isShard)) {
+                    for (Path shard2 : level2) {
+                        try (DirectoryStream<Path> files = Files.newDirectoryStream(shard2, Files::isRegularFile)) {
+                            for (Path file : files) {
+                                visitor.visit(file.getFileName().toString());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Path of the file for a key
+     * @return The path, or null for a key too short to shard (such a key is never stored here,
+     *         but legacy names are looked up in this store too)
+     */
+    private Path resolve(String key) {
+        if (key.length() < 5) {
+            return null;
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private static boolean isShard(Path path) {
+        return path.getFileName().toString().length() == 2 && Files.isDirectory(path);
+    }
+}
@@ -0,0 +1,103 @@
+package com.smartcontactmanager.storage;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * Image store in an S3-compatible bucket (AWS S3, MinIO, R2, ...)
+ * Keys are stored flat under an optional prefix; S3 has no directory size problem.
+ */
+public class S3ImageStore implements ImageStore, AutoCloseable {
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String prefix;
+
+    public S3ImageStore(S3Client s3, String bucket, String prefix) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.prefix = prefix == null ? "" : prefix;
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        try {
+            s3.putObject(PutObjectRequest.builder().bucket(bucket).key(prefix + key).build(),
+                    RequestBody.fromFile(source));
+        } catch (SdkException e) {
+            throw new IOException("Failed to store " + key + ": " + e.getMessage(), e);
+        }
+        Files.deleteIfExists(source);
+    }
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+            return new StoredObject(head.contentLength(), head.lastModified().toEpochMilli(), null);
+        } catch (NoSuchKeyException e) {
+            return null;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw new IOException("Failed to stat " + key + ": " + e.getMessage(), e);
+        } catch (SdkException e) {
+            throw new IOException("Failed to stat " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException e) {
+            throw new IOException("Failed to read " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+        } catch (SdkException e) {
+            throw new IOException("Failed to delete " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void forEachKey(KeyVisitor visitor) throws IOException {
+        ListObjectsV2Request request = ListObjectsV2Request.builder().bucket(bucket).prefix(prefix).build();
+        try {
+            // The paginator fetches one page (up to 1000 keys) at a time
+            for (S3Object object : s3.listObjectsV2Paginator(request).contents()) {
+                visitor.visit(object.key().substring(prefix.length()));
+            }
+        } catch (SdkException e) {
+            throw new IOException("Failed to list bucket " + bucket + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        s3.close();
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartcontactmanager.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Selects the image storage backend (file.storage.backend = local | s3)
+ */
+@Configuration
+public class StorageConfig {
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${file.storage.backend:local}")
+    private String backend;
+
+    @Value("${file.storage.s3.endpoint:}")
+    private String s3Endpoint;
+
+    @Value("${file.storage.s3.region:us-east-1}")
+    private String s3Region;
+
+    @Value("${file.storage.s3.bucket:}")
+    private String s3Bucket;
+
+    @Value("${file.storage.s3.prefix:}")
+    private String s3Prefix;
+
+    @Value("${file.storage.s3.access-key:}")
+    private String s3AccessKey;
+
+    @Value("${file.storage.s3.secret-key:}")
+    private String s3SecretKey;
+
+    @Value("${file.storage.s3.path-style-access:false}")
+    private boolean s3PathStyleAccess;
+
+    @Bean
+    public ImageStore imageStore() {
+        if ("s3".equalsIgnoreCase(backend)) {
+            if (s3Bucket.isEmpty()) {
+                throw new IllegalStateException("file.storage.s3.bucket is required for the s3 backend");
+            }
+            return new S3ImageStore(s3Client(), s3Bucket, s3Prefix);
+        }
+        if (!"local".equalsIgnoreCase(backend)) {
+            throw new IllegalStateException("Unknown file.storage.backend: " + backend);
+        }
+        return new LocalShardedImageStore(Paths.get(uploadDir));
+    }
+
+    /**
+     * Build the S3 client; an endpoint override plus path-style access points it at MinIO
+     */
+    private S3Client s3Client() {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(s3Region))
+                .forcePathStyle(s3PathStyleAccess);
+        if (!s3Endpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(s3Endpoint));
+        }
+        if (!s3AccessKey.isEmpty()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(s3AccessKey, s3SecretKey)));
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.create());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartcontactmanager.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Metadata of an object in an {@link ImageStore}
+ */
+public class StoredObject {
+
+    private final long size;
+    private final long lastModified;
+    private final Path localPath;
+
+    public StoredObject(long size, long lastModified, Path localPath) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.localPath = localPath;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Local file holding the object, or null when the store is not on local disk
+     */
+    public Path getLocalPath() {
+        return localPath;
+    }
+}
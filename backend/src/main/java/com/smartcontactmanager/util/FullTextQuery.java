@@ -0,0 +1,36 @@
+package com.smartcontactmanager.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Builds MySQL boolean mode FULLTEXT queries from user input
+ */
+public final class FullTextQuery {
+
+    // FULLTEXT splits words on punctuation; boolean operators in the input are dropped with it
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}_]+");
+
+    private FullTextQuery() {
+    }
+
+    /**
+     * Turn a search keyword into a boolean mode query where every word is required as a prefix
+     * e.g. "john smi" -> "+john* +smi*"
+     * @param keyword The user's search input
+     * @param minWordLength Words shorter than this are not in the index (innodb_ft_min_token_size)
+     * @return The query, or null when no word is long enough to be searched in the index
+     */
+    public static String booleanMode(String keyword, int minWordLength) {
+        StringBuilder query = new StringBuilder();
+        for (String word : NON_WORD.split(keyword.trim())) {
+            if (word.length() < minWordLength) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append('+').append(word).append('*');
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+}
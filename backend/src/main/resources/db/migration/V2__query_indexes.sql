@@ -0,0 +1,5 @@
+-- Contact lists and searches filter on the owner; name and id give them a stable order straight from the index
+CREATE INDEX idx_contacts_user_name_id ON contacts (user_id, name, id);
+
+-- Image uploads and the orphan image collector look users up by image path
+CREATE INDEX idx_users_image_path ON users (image_path);
@@ -0,0 +1,12 @@
+-- Outbox of cache invalidations between instances (cache.invalidation.backend=outbox)
+-- Instances poll by id; published_at (epoch milliseconds) is for latency and pruning
+CREATE TABLE cache_invalidations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    origin VARCHAR(36) NOT NULL,
+    cache_name VARCHAR(32) NOT NULL,
+    cache_key VARCHAR(255) NOT NULL,
+    published_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_cache_invalidations_published_at ON cache_invalidations (published_at);
@@ -0,0 +1,69 @@
+package com.smartcontactmanager.benchmarks;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal Spring context with the backend's entities and repositories on an in-memory H2
+ * database in MySQL mode. Services, controllers and security are not started.
+ * The schema comes from the backend's Flyway migrations, indexes included.
+ * R2DBC is excluded as in the application, where only the reactive read API uses it.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = R2dbcAutoConfiguration.class)
+@EntityScan("com.smartcontactmanager.entity")
+@EnableJpaRepositories("com.smartcontactmanager.repository")
+public class BenchmarkDatabase {
+
+    /**
+     * Start a context on a fresh database
+     * @param name Database name, unique per benchmark trial
+     */
+    static ConfigurableApplicationContext start(String name) {
+        return builder().run(arguments(h2Settings(name)));
+    }
+
+    /**
+     * Builder for a non-web context of this configuration
+     */
+    static SpringApplicationBuilder builder() {
+        return new SpringApplicationBuilder(BenchmarkDatabase.class).web(WebApplicationType.NONE);
+    }
+
+    /**
+     * Settings for a fresh in-memory H2 database
+     * @param name Database name
+     */
+    static Map<String, String> h2Settings(String name) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("spring.datasource.url", "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        settings.put("spring.datasource.username", "sa");
+        settings.put("spring.datasource.password", "");
+        settings.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        settings.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        return settings;
+    }
+
+    /**
+     * Turn settings into command line arguments
+     * Settings are passed as command line arguments so they override the backend's
+     * application.properties, which is on the classpath.
+     */
+    static String[] arguments(Map<String, String> settings) {
+        Map<String, String> all = new LinkedHashMap<>(settings);
+        all.putIfAbsent("spring.main.banner-mode", "off");
+        all.putIfAbsent("logging.level.root", "WARN");
+        return all.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+}
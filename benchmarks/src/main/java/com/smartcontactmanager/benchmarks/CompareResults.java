@@ -0,0 +1,126 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compare two JMH JSON result files and print a Markdown table for a PR description
+ * A change counts only when the scores differ by more than both error margins together
+ * and by more than the threshold; otherwise it is reported as noise.
+ *
+ * Usage: CompareResults before.json after.json [--threshold=5]
+ * Exits with status 1 when any benchmark got slower beyond the threshold.
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults before.json after.json [--threshold=percent]");
+            System.exit(2);
+        }
+        double threshold = 5.0;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--threshold=")) {
+                threshold = Double.parseDouble(args[i].substring("--threshold=".length()));
+            }
+        }
+
+        Map<String, Score> before = read(Path.of(args[0]));
+        Map<String, Score> after = read(Path.of(args[1]));
+
+        System.out.println("| Benchmark | Params | Before | After | Change | |");
+        System.out.println("|---|---|---:|---:|---:|---|");
+        boolean regression = false;
+        for (Map.Entry<String, Score> entry : after.entrySet()) {
+            Score candidate = entry.getValue();
+            Score baseline = before.get(entry.getKey());
+            if (baseline == null) {
+                System.out.printf("| %s | %s | - | %s | | new |%n", candidate.benchmark, candidate.params, candidate.format());
+                continue;
+            }
+            double change = (candidate.score - baseline.score) / baseline.score * 100;
+            boolean significant = Math.abs(candidate.score - baseline.score) > baseline.error + candidate.error
+                    && Math.abs(change) > threshold;
+            // Throughput: higher is better; time per operation: lower is better
+            boolean better = candidate.higherIsBetter() ? change > 0 : change < 0;
+            String verdict = !significant ? "~ noise" : better ? "faster" : "**slower**";
+            if (significant && !better) {
+                regression = true;
+            }
+            System.out.printf("| %s | %s | %s | %s | %+.1f%% | %s |%n",
+                    candidate.benchmark, candidate.params, baseline.format(), candidate.format(), change, verdict);
+        }
+        for (Map.Entry<String, Score> entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                Score baseline = entry.getValue();
+                System.out.printf("| %s | %s | %s | - | | removed |%n", baseline.benchmark, baseline.params, baseline.format());
+            }
+        }
+        System.exit(regression ? 1 : 0);
+    }
+
+    /**
+     * Read a file written by JMH with -rf json
+     */
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            String benchmark = result.get("benchmark").asText();
+            benchmark = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            StringBuilder params = new StringBuilder();
+            JsonNode paramsNode = result.get("params");
+            if (paramsNode != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = paramsNode.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (params.length() > 0) {
+                        params.append(", ");
+                    }
+                    params.append(field.getKey()).append('=').append(field.getValue().asText());
+                }
+            }
+            JsonNode metric = result.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            Score score = new Score(benchmark, params.toString(), result.get("mode").asText(),
+                    metric.get("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                    metric.get("scoreUnit").asText());
+            scores.put(benchmark + " " + score.mode + " " + score.params, score);
+        }
+        return scores;
+    }
+
+    /**
+     * One benchmark result
+     */
+    private static class Score {
+        final String benchmark;
+        final String params;
+        final String mode;
+        final double score;
+        final double error;
+        final String unit;
+
+        Score(String benchmark, String params, String mode, double score, double error, String unit) {
+            this.benchmark = benchmark;
+            this.params = params;
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        String format() {
+            return String.format("%.3f +/- %.3f %s", score, error, unit);
+        }
+    }
+}
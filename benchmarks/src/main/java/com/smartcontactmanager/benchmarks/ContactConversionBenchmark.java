@@ -0,0 +1,74 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.smartcontactmanager.dto.ContactDTO;
+import com.smartcontactmanager.entity.Contact;
+import com.smartcontactmanager.service.ContactService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * ContactService.convertToDTO over whole contact lists, as done by the list and search endpoints
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactConversionBenchmark {
+
+    // convertToDTO is private; a constant MethodHandle is inlined like a direct call
+    private static final MethodHandle CONVERT_TO_DTO;
+
+    static {
+        try {
+            CONVERT_TO_DTO = MethodHandles.privateLookupIn(ContactService.class, MethodHandles.lookup())
+                    .findVirtual(ContactService.class, "convertToDTO", MethodType.methodType(ContactDTO.class, Contact.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ContactService contactService;
+    private List<Contact> contacts;
+
+    @Setup
+    public void setup() {
+        contactService = new ContactService();
+        contacts = Fixtures.contacts(Fixtures.user(), size);
+    }
+
+    @Benchmark
+    public List<ContactDTO> convertAll() {
+        return contacts.stream()
+                .map(this::convert)
+                .collect(Collectors.toList());
+    }
+
+    private ContactDTO convert(Contact contact) {
+        try {
+            return (ContactDTO) CONVERT_TO_DTO.invokeExact(contactService, contact);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.smartcontactmanager.entity.Contact;
+import com.smartcontactmanager.entity.User;
+import com.smartcontactmanager.repository.ContactRepository;
+import com.smartcontactmanager.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ContactRepository.searchContacts (first page of 50) against embedded H2
+ * The searched user owns contactsPerUser contacts; other users' rows make the table
+ * OTHER_USERS times larger so the user_id filter matters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactSearchBenchmark {
+
+    private static final int OTHER_USERS = 4;
+
+    private static final Pageable PAGE = PageRequest.of(0, 50);
+
+    @Param({"1000", "10000"})
+    private int contactsPerUser;
+
+    // A name matching few rows, a common surname and a phone fragment
+    @Param({"Grace Lopez", "smith", "555-00001"})
+    private String keyword;
+
+    private ConfigurableApplicationContext context;
+    private ContactRepository contactRepository;
+    private User user;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkDatabase.start("search" + System.nanoTime());
+        contactRepository = context.getBean(ContactRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        for (int u = 0; u <= OTHER_USERS; u++) {
+            User owner = Fixtures.user();
+            owner.setId(null);
+            owner.setEmail(u == 0 ? Fixtures.EMAIL : "other" + u + "@example.com");
+            owner.setPassword("not-a-real-hash");
+            owner = userRepository.save(owner);
+            if (u == 0) {
+                user = owner;
+            }
+
+            List<Object[]> rows = new ArrayList<>(contactsPerUser);
+            for (Contact contact : Fixtures.contacts(owner, contactsPerUser)) {
+                rows.add(new Object[]{contact.getName(), contact.getEmail(), contact.getPhone(),
+                        contact.getDescription(), owner.getId()});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO contacts (name, email, phone, description, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<Contact> search() {
+        return contactRepository.searchContacts(user, keyword, PAGE);
+    }
+}
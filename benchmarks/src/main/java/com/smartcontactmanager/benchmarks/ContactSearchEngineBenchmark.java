@@ -0,0 +1,150 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.smartcontactmanager.entity.Contact;
+import com.smartcontactmanager.entity.User;
+import com.smartcontactmanager.repository.ContactRepository;
+import com.smartcontactmanager.repository.UserRepository;
+import com.smartcontactmanager.util.FullTextQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LIKE vs FULLTEXT contact search (first page of 50) on MySQL with 1M contacts
+ * FULLTEXT is MySQL only, so this needs a server: set BENCH_MYSQL_URL (e.g.
+ * jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true), BENCH_MYSQL_USER and
+ * BENCH_MYSQL_PASSWORD. The database is migrated by Flyway and filled on first use, which takes
+ * a few minutes; later runs reuse the rows. The searched user owns `owned` of the contacts and the
+ * rest belong to other users.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactSearchEngineBenchmark {
+
+    private static final int TOTAL_CONTACTS = 1_000_000;
+    private static final int FILLER_CONTACTS_PER_USER = 10_000;
+    private static final int[] SEARCHED_USER_CONTACTS = {10_000, 100_000};
+    private static final int BATCH_SIZE = 5_000;
+    private static final String EMAIL_PATTERN = "engine-%@example.com";
+
+    private static final Pageable PAGE = PageRequest.of(0, 50);
+
+    @Param({"like", "fulltext"})
+    private String engine;
+
+    @Param({"10000", "100000"})
+    private int owned;
+
+    // Two words matching few rows, a common surname and a word in every description
+    @Param({"grace lopez", "smith", "conference"})
+    private String keyword;
+
+    private ConfigurableApplicationContext context;
+    private ContactRepository contactRepository;
+    private User user;
+    private String fullTextQuery;
+
+    @Setup
+    public void setup() {
+        String url = System.getenv("BENCH_MYSQL_URL");
+        if (url == null) {
+            throw new IllegalStateException("Set BENCH_MYSQL_URL, BENCH_MYSQL_USER and BENCH_MYSQL_PASSWORD to a MySQL database");
+        }
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("spring.datasource.url", url);
+        settings.put("spring.datasource.username", System.getenv().getOrDefault("BENCH_MYSQL_USER", "root"));
+        settings.put("spring.datasource.password", System.getenv().getOrDefault("BENCH_MYSQL_PASSWORD", ""));
+        context = BenchmarkDatabase.builder().run(BenchmarkDatabase.arguments(settings));
+        contactRepository = context.getBean(ContactRepository.class);
+
+        seedIfNeeded(context.getBean(JdbcTemplate.class));
+        user = context.getBean(UserRepository.class).findByEmail("engine-" + owned + "@example.com")
+                .orElseThrow(() -> new IllegalStateException("No searched user owning " + owned + " contacts"));
+        fullTextQuery = FullTextQuery.booleanMode(keyword, 3);
+    }
+
+    /**
+     * Fill the database with TOTAL_CONTACTS contacts unless a previous run already did
+     */
+    private void seedIfNeeded(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM contacts c JOIN users u ON u.id = c.user_id WHERE u.email LIKE ?",
+                Integer.class, EMAIL_PATTERN);
+        if (existing != null && existing == TOTAL_CONTACTS) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", EMAIL_PATTERN);
+
+        int remaining = TOTAL_CONTACTS;
+        for (int owns : SEARCHED_USER_CONTACTS) {
+            insertUser(jdbcTemplate, "engine-" + owns + "@example.com", owns);
+            remaining -= owns;
+        }
+        for (int u = 0; remaining > 0; u++) {
+            int owns = Math.min(FILLER_CONTACTS_PER_USER, remaining);
+            insertUser(jdbcTemplate, "engine-filler" + u + "@example.com", owns);
+            remaining -= owns;
+        }
+        jdbcTemplate.execute("ANALYZE TABLE users, contacts");
+    }
+
+    private void insertUser(JdbcTemplate jdbcTemplate, String email, int contacts) {
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)",
+                "Bench User", email, "not-a-real-hash", "ROLE_USER");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+        User owner = new User();
+        owner.setId(userId);
+
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (Contact contact : Fixtures.contacts(owner, contacts)) {
+            rows.add(new Object[]{contact.getName(), contact.getEmail(), contact.getPhone(),
+                    contact.getDescription(), userId});
+            if (rows.size() == BATCH_SIZE) {
+                insertContacts(jdbcTemplate, rows);
+                rows.clear();
+            }
+        }
+        insertContacts(jdbcTemplate, rows);
+    }
+
+    private void insertContacts(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO contacts (name, email, phone, description, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<Contact> search() {
+        if ("fulltext".equals(engine)) {
+            return contactRepository.fullTextSearch(user.getId(), fullTextQuery, PAGE);
+        }
+        return contactRepository.searchContacts(user, keyword, PAGE);
+    }
+}
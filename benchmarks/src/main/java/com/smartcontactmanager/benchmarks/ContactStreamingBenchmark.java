@@ -0,0 +1,124 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcontactmanager.dto.ContactDTO;
+import com.smartcontactmanager.entity.Contact;
+import com.smartcontactmanager.entity.User;
+import com.smartcontactmanager.repository.ContactRepository;
+import com.smartcontactmanager.repository.UserRepository;
+import com.smartcontactmanager.service.ContactJsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * GET /api/contacts body on embedded H2: entities, DTOs and ObjectMapper vs ContactJsonWriter
+ * Run with -prof gc; gc.alloc.rate.norm divided by contacts is the allocation per contact.
+ * fields only applies to the streaming path, as ?fields= does for the endpoint.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactStreamingBenchmark {
+
+    @Param({"100", "10000"})
+    private int contacts;
+
+    @Param({"id,name,email,phone,description", "id,name,phone"})
+    private String fields;
+
+    private ConfigurableApplicationContext context;
+    private ContactRepository contactRepository;
+    private ContactJsonWriter contactJsonWriter;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate readOnly;
+    private User user;
+    private Set<ContactJsonWriter.Field> selected;
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setup() {
+        context = BenchmarkDatabase.start("streaming" + System.nanoTime());
+        contactRepository = context.getBean(ContactRepository.class);
+        contactJsonWriter = context.getAutowireCapableBeanFactory().createBean(ContactJsonWriter.class);
+        // Spring MVC writes to the response without closing it
+        objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        selected = ContactJsonWriter.Field.parse(fields);
+
+        User owner = Fixtures.user();
+        owner.setId(null);
+        owner.setPassword("not-a-real-hash");
+        user = context.getBean(UserRepository.class).save(owner);
+
+        List<Object[]> rows = new ArrayList<>(contacts);
+        for (Contact contact : Fixtures.contacts(user, contacts)) {
+            rows.add(new Object[]{contact.getName(), contact.getEmail(), contact.getPhone(),
+                    contact.getDescription(), user.getId()});
+        }
+        context.getBean(JdbcTemplate.class)
+                .batchUpdate("INSERT INTO contacts (name, email, phone, description, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * The previous path: List&lt;Contact&gt; to List&lt;ContactDTO&gt; to Jackson
+     */
+    @Benchmark
+    public void entities() {
+        readOnly.executeWithoutResult(status -> {
+            List<ContactDTO> dtos = contactRepository.findByUser(user).stream()
+                    .map(c -> new ContactDTO(c.getId(), c.getName(), c.getEmail(), c.getPhone(), c.getDescription()))
+                    .collect(Collectors.toList());
+            try {
+                objectMapper.writeValue(out, dtos);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Benchmark
+    public void streaming() {
+        readOnly.executeWithoutResult(status -> {
+            try {
+                contactJsonWriter.writeByUserId(user.getId(), selected, MediaType.APPLICATION_JSON, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
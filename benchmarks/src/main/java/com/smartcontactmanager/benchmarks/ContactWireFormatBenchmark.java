@@ -0,0 +1,80 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcontactmanager.dto.ContactDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * List&lt;ContactDTO&gt; as JSON, CBOR and Smile, with the mappers Spring MVC's converters use
+ * The encoded size (plain and gzipped) of each format is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactWireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ContactDTO> contacts;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        switch (format) {
+            case "json":
+                objectMapper = Jackson2ObjectMapperBuilder.json().build();
+                break;
+            case "cbor":
+                objectMapper = Jackson2ObjectMapperBuilder.cbor().build();
+                break;
+            case "smile":
+                objectMapper = Jackson2ObjectMapperBuilder.smile().build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+        contacts = Fixtures.contactDTOs(size);
+        encoded = objectMapper.writeValueAsBytes(contacts);
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(encoded);
+        }
+        System.out.printf("%n%d contacts as %s: %d bytes, %d gzipped%n", size, format, encoded.length, gzipped.size());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(contacts);
+    }
+
+    @Benchmark
+    public ContactDTO[] deserialize() throws IOException {
+        return objectMapper.readValue(encoded, ContactDTO[].class);
+    }
+}
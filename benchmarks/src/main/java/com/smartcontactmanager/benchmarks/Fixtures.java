@@ -0,0 +1,77 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.smartcontactmanager.dto.ContactDTO;
+import com.smartcontactmanager.entity.Contact;
+import com.smartcontactmanager.entity.User;
+import com.smartcontactmanager.util.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared test data for the benchmarks
+ */
+final class Fixtures {
+
+    // Same length and expiry as the production configuration
+    static final String JWT_SECRET = "SmartContactManagerSecretKeyForJWTTokenGeneration2024";
+    static final long JWT_EXPIRATION = 86_400_000L;
+
+    static final String EMAIL = "bench@example.com";
+
+    private Fixtures() {
+    }
+
+    /**
+     * JwtUtil configured as in application.properties
+     */
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", JWT_EXPIRATION);
+        return jwtUtil;
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("Bench User");
+        user.setEmail(EMAIL);
+        user.setRole("ROLE_USER");
+        return user;
+    }
+
+    /**
+     * Contacts with realistic field lengths
+     */
+    static List<Contact> contacts(User user, int count) {
+        List<Contact> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Contact contact = new Contact(name(i), "contact" + i + "@example.com", phone(i),
+                    "Met at conference " + (i % 50) + ", follow up about project " + (i % 7), user);
+            contact.setId((long) i + 1);
+            contacts.add(contact);
+        }
+        return contacts;
+    }
+
+    static List<ContactDTO> contactDTOs(int count) {
+        List<ContactDTO> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            contacts.add(new ContactDTO((long) i + 1, name(i), "contact" + i + "@example.com", phone(i),
+                    "Met at conference " + (i % 50) + ", follow up about project " + (i % 7)));
+        }
+        return contacts;
+    }
+
+    static String name(int i) {
+        String[] first = {"Alice", "Bob", "Carol", "David", "Erin", "Frank", "Grace", "Heidi"};
+        String[] last = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Lopez"};
+        return first[i % first.length] + " " + last[(i / first.length) % last.length] + " " + i;
+    }
+
+    static String phone(int i) {
+        return String.format("+1-555-%07d", i);
+    }
+}
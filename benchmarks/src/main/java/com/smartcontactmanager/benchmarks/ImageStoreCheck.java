@@ -0,0 +1,178 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.smartcontactmanager.storage.ImageStore;
+import com.smartcontactmanager.storage.LocalShardedImageStore;
+import com.smartcontactmanager.storage.S3ImageStore;
+import com.smartcontactmanager.storage.StoredObject;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Check an ImageStore backend against the contract the backend relies on
+ * Stores, stats, reads, lists and deletes a set of objects, including keys the store does not
+ * have and a legacy name too short to shard, and prints the time per operation. With
+ * --backend=s3 it runs against any S3-compatible endpoint, by default a local MinIO stand-in:
+ *
+ *   docker run -p 9000:9000 minio/minio server /data      (minioadmin / minioadmin)
+ *
+ * Options: --backend=local|s3 (default local), --count=200, --size=20000 (bytes per object),
+ * --endpoint=http://localhost:9000, --bucket=image-store-check (created if missing),
+ * --access-key=minioadmin, --secret-key=minioadmin, --region=us-east-1. Uses path-style access
+ * and a unique key prefix, and removes what it wrote. Exits with status 1 when a check fails.
+ */
+public class ImageStoreCheck {
+
+    private static final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        String backend = option(args, "backend", "local");
+        int count = Integer.parseInt(option(args, "count", "200"));
+        int size = Integer.parseInt(option(args, "size", "20000"));
+
+        Path localRoot = null;
+        ImageStore store;
+        if (backend.equals("s3")) {
+            S3Client s3 = S3Client.builder()
+                    .endpointOverride(URI.create(option(args, "endpoint", "http://localhost:9000")))
+                    .region(Region.of(option(args, "region", "us-east-1")))
+                    .forcePathStyle(true)
+                    .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(
+                            option(args, "access-key", "minioadmin"), option(args, "secret-key", "minioadmin"))))
+                    .build();
+            String bucket = option(args, "bucket", "image-store-check");
+            try {
+                s3.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+            } catch (BucketAlreadyOwnedByYouException e) {
+                // Reused from an earlier run
+            }
+            store = new S3ImageStore(s3, bucket, "check-" + System.currentTimeMillis() + "/");
+        } else if (backend.equals("local")) {
+            localRoot = Files.createTempDirectory("image-store-check");
+            store = new LocalShardedImageStore(localRoot);
+        } else {
+            throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        List<byte[]> contents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] content = new byte[size];
+            random.nextBytes(content);
+            keys.add(String.format("%064x.jpg", i + 1L));
+            contents.add(content);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Path source = Files.createTempFile("image-store-check", ".tmp");
+            Files.write(source, contents.get(i));
+            store.put(keys.get(i), source);
+            check(!Files.exists(source), "put did not take ownership of the source file");
+            Files.deleteIfExists(source);
+        }
+        report("put", start, count);
+
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            StoredObject stored = store.stat(keys.get(i));
+            check(stored != null && stored.getSize() == size, "stat " + keys.get(i));
+        }
+        report("stat", start, count);
+
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            try (InputStream input = store.open(keys.get(i))) {
+                check(Arrays.equals(input.readAllBytes(), contents.get(i)), "content of " + keys.get(i));
+            }
+        }
+        report("open+read", start, count);
+
+        start = System.nanoTime();
+        Set<String> listed = new HashSet<>();
+        store.forEachKey(listed::add);
+        report("list", start, 1);
+        check(listed.containsAll(keys), "listing is missing keys (" + listed.size() + " listed)");
+
+        // Absent keys, including a legacy name that cannot be sharded, read as not found
+        for (String absent : List.of(String.format("%064x.png", 0L), "a.png")) {
+            check(store.stat(absent) == null, "stat of absent key " + absent);
+            try (InputStream input = store.open(absent)) {
+                failures.add("open of absent key " + absent + " returned a stream");
+            } catch (NoSuchFileException e) {
+                // Expected
+            } catch (IOException | RuntimeException e) {
+                failures.add("open of absent key " + absent + " threw " + e);
+            }
+            store.delete(absent);
+        }
+
+        start = System.nanoTime();
+        for (String key : keys) {
+            store.delete(key);
+        }
+        report("delete", start, count);
+        for (String key : keys) {
+            check(store.stat(key) == null, "stat after delete " + key);
+        }
+
+        if (store instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        if (localRoot != null) {
+            deleteTree(localRoot);
+        }
+        System.out.printf("backend=%s objects=%d size=%d bytes: %d failed checks%n",
+                backend, count, size, failures.size());
+        for (String failure : failures) {
+            System.out.println("FAILED " + failure);
+        }
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            failures.add(description);
+        }
+    }
+
+    private static void report(String operation, long start, int count) {
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%-10s %8.1f ms total, %7.3f ms per operation%n", operation, millis, millis / count);
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (var paths = Files.walk(root)) {
+            for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,139 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.smartcontactmanager.cache.CacheInvalidationBus;
+import com.smartcontactmanager.cache.InvalidationTransport;
+import com.smartcontactmanager.cache.LocalInvalidationTransport;
+import com.smartcontactmanager.cache.OutboxInvalidationTransport;
+import com.smartcontactmanager.cache.RedisInvalidationTransport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measure end-to-end cache invalidation latency between instances
+ * Starts several CacheInvalidationBus instances in one JVM, each with its own transport as separate
+ * application instances would have, and publishes invalidations from the first one inside write
+ * transactions on embedded H2. The time from just before the commit to the listener call on each
+ * other instance is measured on one clock, so unlike the cache.invalidation.latency metric it is
+ * not affected by clock skew.
+ *
+ * Options: --backend=local|redis|outbox (default local), --instances=3, --count=2000,
+ * --interval-ms=5 (between publishes), --redis-url=redis://localhost:6379, --poll-ms=250
+ * (outbox). Exits with status 1 when an invalidation did not arrive within 30 seconds.
+ */
+public class InvalidationLatencyCheck {
+
+    public static void main(String[] args) throws Exception {
+        String backend = option(args, "backend", "local");
+        int instances = Integer.parseInt(option(args, "instances", "3"));
+        int count = Integer.parseInt(option(args, "count", "2000"));
+        long intervalMs = Long.parseLong(option(args, "interval-ms", "5"));
+        String redisUrl = option(args, "redis-url", "redis://localhost:6379");
+        long pollMs = Long.parseLong(option(args, "poll-ms", "250"));
+
+        try (ConfigurableApplicationContext context = BenchmarkDatabase.start("invalidation")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(
+                    context.getBean(PlatformTransactionManager.class));
+
+            // Arrival time per key, one entry per receiving instance
+            ConcurrentHashMap<String, long[]> arrivals = new ConcurrentHashMap<>();
+            AtomicInteger delivered = new AtomicInteger();
+            LocalInvalidationTransport sharedLocal = new LocalInvalidationTransport();
+            List<CacheInvalidationBus> buses = new ArrayList<>();
+            for (int i = 0; i < instances; i++) {
+                InvalidationTransport transport = switch (backend) {
+                    case "local" -> sharedLocal;
+                    case "redis" -> new RedisInvalidationTransport(redisUrl, "bench:cache-invalidation", 10000);
+                    case "outbox" -> new OutboxInvalidationTransport(jdbcTemplate, Executors.defaultThreadFactory(),
+                            pollMs, 10000, 600000);
+                    default -> throw new IllegalArgumentException("Unknown backend: " + backend);
+                };
+                CacheInvalidationBus bus = new CacheInvalidationBus();
+                ReflectionTestUtils.setField(bus, "transport", transport);
+                ReflectionTestUtils.setField(bus, "meterRegistry", new SimpleMeterRegistry());
+                bus.start();
+                int receiver = i - 1;
+                if (receiver >= 0) {
+                    bus.subscribe(CacheInvalidationBus.CONTACTS, (key, remote) -> {
+                        long now = System.nanoTime();
+                        long[] times = arrivals.get(key);
+                        if (remote && times != null && times[receiver] == 0) {
+                            times[receiver] = now;
+                            delivered.incrementAndGet();
+                        }
+                    });
+                }
+                buses.add(bus);
+            }
+
+            CacheInvalidationBus publisher = buses.get(0);
+            long[] published = new long[count];
+            for (int n = 0; n < count; n++) {
+                String key = String.valueOf(n);
+                arrivals.put(key, new long[instances - 1]);
+                int index = n;
+                transactionTemplate.executeWithoutResult(status -> {
+                    publisher.publish(CacheInvalidationBus.CONTACTS, key);
+                    published[index] = System.nanoTime();
+                });
+                if (intervalMs > 0) {
+                    Thread.sleep(intervalMs);
+                }
+            }
+
+            int expected = count * (instances - 1);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (delivered.get() < expected && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            for (CacheInvalidationBus bus : buses) {
+                bus.stop();
+            }
+
+            long[] latencies = new long[delivered.get()];
+            int l = 0;
+            for (int n = 0; n < count; n++) {
+                for (long arrival : arrivals.get(String.valueOf(n))) {
+                    if (arrival != 0 && l < latencies.length) {
+                        latencies[l++] = Math.max(0, arrival - published[n]);
+                    }
+                }
+            }
+            Arrays.sort(latencies);
+            System.out.printf("backend=%s instances=%d published=%d delivered=%d/%d%n",
+                    backend, instances, count, delivered.get(), expected);
+            if (latencies.length > 0) {
+                System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                        millis(latencies, 0.5), millis(latencies, 0.9), millis(latencies, 0.99),
+                        latencies[latencies.length - 1] / 1e6);
+            }
+            System.exit(delivered.get() < expected ? 1 : 0);
+        }
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,51 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.smartcontactmanager.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of JwtUtil token generation, claim parsing and validation
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = Fixtures.jwtUtil();
+        token = jwtUtil.generateToken(Fixtures.EMAIL, "ROLE_USER", 1L);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(Fixtures.EMAIL, "ROLE_USER", 1L);
+    }
+
+    @Benchmark
+    public String parseEmail() {
+        return jwtUtil.getEmailFromToken(token);
+    }
+
+    @Benchmark
+    public Boolean validate() {
+        return jwtUtil.validateToken(token, Fixtures.EMAIL);
+    }
+}
@@ -0,0 +1,420 @@
+package com.smartcontactmanager.benchmarks;
+
+import com.smartcontactmanager.entity.Contact;
+import com.smartcontactmanager.entity.User;
+import com.smartcontactmanager.repository.ContactRepository;
+import com.smartcontactmanager.repository.UserRepository;
+import com.smartcontactmanager.service.ContactJsonWriter;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Run EXPLAIN on every repository query and fail when one reads a whole table
+ * Each query method declared on the repositories (plus findById) and on ContactJsonWriter is called
+ * once with sample arguments inside a rolled back transaction while the SQL sent is recorded. Every
+ * recorded statement is then explained with the same parameters. A plan that scans a whole table
+ * or index (MySQL access type ALL or index, H2 tableScan or an index without a condition) fails the check,
+ * unless the method is listed in EXPECTED_FULL_SCANS.
+ *
+ * Runs on embedded H2 (MySQL mode) migrated by Flyway by default; native queries and FULLTEXT searches
+ * are only checked on MySQL, as they may use MySQL-only SQL. To check MySQL's own plans,
+ * point it at a scratch database, which is migrated and filled with sample rows when empty:
+ *   --spring.datasource.url=jdbc:mysql://localhost:3306/plans --spring.datasource.username=... --spring.datasource.password=...
+ *
+ * Exits with status 1 when any query scans a full table.
+ */
+public class QueryPlanCheck {
+
+    private static final int USERS = 50;
+    private static final int CONTACTS_PER_USER = 200;
+
+    private static final List<Class<?>> REPOSITORIES = List.of(ContactRepository.class, UserRepository.class);
+
+    // Methods that read a whole table by design, like the inherited findAll, which is not checked
+    private static final Set<String> EXPECTED_FULL_SCANS = Set.of(
+            // The admin user list returns the contacts of every user
+            "ContactJsonWriter.readAllByUser");
+
+    private static final Pattern H2_PLAN_COMMENT = Pattern.compile("/\\*\\s*([^*]+?)\\s*\\*/");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = BenchmarkDatabase.h2Settings("plans");
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (arg.startsWith("--") && equals > 0) {
+                settings.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        if (!settings.get("spring.datasource.url").startsWith("jdbc:h2:")) {
+            // Driver and dialect come from the backend's (MySQL) application.properties
+            settings.remove("spring.datasource.driver-class-name");
+            settings.remove("spring.jpa.database-platform");
+        }
+
+        SqlRecorder recorder = new SqlRecorder();
+        boolean fullScan = false;
+        try (ConfigurableApplicationContext context = BenchmarkDatabase.builder()
+                .initializers(c -> c.getBeanFactory().addBeanPostProcessor(recorder))
+                .run(BenchmarkDatabase.arguments(settings))) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            DataSource dataSource = context.getBean(DataSource.class);
+            boolean mysql;
+            try (Connection connection = dataSource.getConnection()) {
+                String product = connection.getMetaData().getDatabaseProductName().toLowerCase();
+                mysql = product.contains("mysql") || product.contains("mariadb");
+            }
+            seedIfEmpty(context, jdbcTemplate);
+            List<RecordedStatement> statements = record(context, recorder, mysql);
+
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(mysql ? "ANALYZE TABLE users, contacts" : "ANALYZE");
+                }
+
+                System.out.println("| Query | Plan | |");
+                System.out.println("|---|---|---|");
+                for (RecordedStatement recorded : statements) {
+                    if (recorded.sql == null) {
+                        System.out.printf("| %s | not checked (no statement, or native SQL on a database other than MySQL) | |%n",
+                                recorded.label);
+                        continue;
+                    }
+                    Plan plan = mysql ? explainMySql(connection, recorded) : explainH2(connection, recorded);
+                    boolean expected = EXPECTED_FULL_SCANS.contains(recorded.label);
+                    fullScan |= plan.fullScan && !expected;
+                    System.out.printf("| %s | %s | %s |%n", recorded.label, plan.summary,
+                            !plan.fullScan ? "ok" : expected ? "full scan, expected" : "**full scan**");
+                }
+            }
+        }
+        System.exit(fullScan ? 1 : 0);
+    }
+
+    /**
+     * Fill an empty database with users and contacts, so the planner has statistics to work with
+     */
+    private static void seedIfEmpty(ConfigurableApplicationContext context, JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contacts", Integer.class);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        for (int u = 0; u < USERS; u++) {
+            User owner = Fixtures.user();
+            owner.setId(null);
+            owner.setEmail("plan" + u + "@example.com");
+            owner.setPassword("not-a-real-hash");
+            owner.setImagePath(u % 2 == 0 ? "uploads/" + String.format("%064x", u) + ".jpg" : null);
+            owner = userRepository.save(owner);
+
+            List<Object[]> rows = new ArrayList<>(CONTACTS_PER_USER);
+            for (Contact contact : Fixtures.contacts(owner, CONTACTS_PER_USER)) {
+                rows.add(new Object[]{contact.getName(), contact.getEmail(), contact.getPhone(),
+                        contact.getDescription(), owner.getId()});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO contacts (name, email, phone, description, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    /**
+     * Call each repository query once and collect the statements it sent
+     */
+    private static List<RecordedStatement> record(ConfigurableApplicationContext context, SqlRecorder recorder,
+                                                  boolean mysql) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE image_path IS NOT NULL", Long.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        transaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            User user = context.getBean(UserRepository.class).findById(userId).orElseThrow();
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(
+                    context.getBean(EntityManagerFactory.class));
+            for (Class<?> repositoryType : REPOSITORIES) {
+                Object repository = context.getBean(repositoryType);
+                List<Method> methods = new ArrayList<>();
+                for (Method method : repositoryType.getDeclaredMethods()) {
+                    if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                        methods.add(method);
+                    }
+                }
+                try {
+                    methods.add(repositoryType.getMethod("findById", Object.class));
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException(e);
+                }
+                for (Method method : methods) {
+                    Query query = method.getAnnotation(Query.class);
+                    // Native queries may use MySQL-only SQL (MATCH ... AGAINST)
+                    boolean mysqlOnly = query != null && query.nativeQuery();
+                    call(recorder, repositoryType.getSimpleName(), repository, method, user, entityManager, mysqlOnly && !mysql);
+                }
+            }
+
+            // The streaming JSON writer sends its own SQL next to the repositories'
+            ContactJsonWriter writer = context.getAutowireCapableBeanFactory().createBean(ContactJsonWriter.class);
+            for (Method method : ContactJsonWriter.class.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && method.getParameterCount() > 0) {
+                    boolean mysqlOnly = method.getName().contains("FullText");
+                    call(recorder, "ContactJsonWriter", writer, method, user, entityManager, mysqlOnly && !mysql);
+                }
+            }
+        });
+        return recorder.statements;
+    }
+
+    /**
+     * Call one query method with sample arguments and record the statements it sends
+     * @param skip Record the method as not checked instead of calling it
+     */
+    private static void call(SqlRecorder recorder, String owner, Object target, Method method, User user,
+                             EntityManager entityManager, boolean skip) {
+        String label = owner + "." + method.getName();
+        if (skip) {
+            recorder.statements.add(new RecordedStatement(label, null, Map.of()));
+            return;
+        }
+        Object[] arguments = new Object[method.getParameterCount()];
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            arguments[i] = sampleArgument(parameters[i], user);
+        }
+        // Entities already loaded would be answered from the persistence context without SQL
+        entityManager.clear();
+        int before = recorder.statements.size();
+        recorder.start(label);
+        try {
+            method.invoke(target, arguments);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to call " + method, e);
+        } finally {
+            recorder.stop();
+        }
+        if (recorder.statements.size() == before) {
+            recorder.statements.add(new RecordedStatement(label, null, Map.of()));
+        }
+    }
+
+    /**
+     * A value for a query method parameter, chosen by type and name
+     */
+    private static Object sampleArgument(Parameter parameter, User user) {
+        Class<?> type = parameter.getType();
+        String name = parameter.isNamePresent() ? parameter.getName() : "";
+        Param param = parameter.getAnnotation(Param.class);
+        if (param != null) {
+            name = param.value();
+        }
+        if (type == User.class) {
+            return user;
+        }
+        if (type == Long.class || type == long.class || type == Object.class) {
+            return user.getId();
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 20);
+        }
+        if (type == MediaType.class) {
+            return MediaType.APPLICATION_JSON;
+        }
+        if (type == OutputStream.class) {
+            return OutputStream.nullOutputStream();
+        }
+        if (Set.class.isAssignableFrom(type)) {
+            return EnumSet.allOf(ContactJsonWriter.Field.class);
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(user.getImagePath(), "uploads/missing.jpg");
+        }
+        if (type == String.class) {
+            String lower = name.toLowerCase();
+            if (lower.contains("email")) {
+                return user.getEmail();
+            }
+            if (lower.contains("path")) {
+                return user.getImagePath();
+            }
+            if (lower.equals("query")) {
+                return "+smith*";
+            }
+            return "smith";
+        }
+        throw new IllegalStateException("No sample value for parameter " + name + " of type " + type.getName());
+    }
+
+    /**
+     * EXPLAIN on MySQL: every table must be read through an index lookup or range
+     */
+    private static Plan explainMySql(Connection connection, RecordedStatement recorded) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        boolean fullScan = false;
+        try (PreparedStatement explain = prepareExplain(connection, recorded);
+             ResultSet rows = explain.executeQuery()) {
+            while (rows.next()) {
+                String type = rows.getString("type");
+                String key = rows.getString("key");
+                fullScan |= "ALL".equals(type) || "index".equals(type);
+                steps.add(rows.getString("table") + ": " + type + (key != null ? " " + key : ""));
+            }
+        }
+        return new Plan(String.join(", ", steps), fullScan);
+    }
+
+    /**
+     * EXPLAIN on H2: the plan names the index and condition each table is read through, or tableScan
+     */
+    private static Plan explainH2(Connection connection, RecordedStatement recorded) throws SQLException {
+        String plan;
+        try (PreparedStatement explain = prepareExplain(connection, recorded);
+             ResultSet rows = explain.executeQuery()) {
+            rows.next();
+            plan = rows.getString(1);
+        }
+        List<String> steps = new ArrayList<>();
+        boolean fullScan = false;
+        Matcher matcher = H2_PLAN_COMMENT.matcher(plan);
+        while (matcher.find()) {
+            String step = matcher.group(1).replaceAll("\\s+", " ");
+            // "schema.table.tableScan", or an index name without a condition (walks the whole index)
+            fullScan |= step.endsWith(".tableScan") || step.matches("[\\w.]+\\.\\w+");
+            steps.add(step);
+        }
+        return new Plan(String.join(", ", steps), fullScan);
+    }
+
+    private static PreparedStatement prepareExplain(Connection connection, RecordedStatement recorded) throws SQLException {
+        PreparedStatement explain = connection.prepareStatement("EXPLAIN " + recorded.sql);
+        for (Map.Entry<Integer, Object> parameter : recorded.parameters.entrySet()) {
+            explain.setObject(parameter.getKey(), parameter.getValue());
+        }
+        return explain;
+    }
+
+    /**
+     * A statement sent by a repository method, with its bound parameters (no SQL if it sent none)
+     */
+    private static class RecordedStatement {
+        final String label;
+        final String sql;
+        final Map<Integer, Object> parameters;
+
+        RecordedStatement(String label, String sql, Map<Integer, Object> parameters) {
+            this.label = label;
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+
+    /**
+     * Summary of one EXPLAIN
+     */
+    private static class Plan {
+        final String summary;
+        final boolean fullScan;
+
+        Plan(String summary, boolean fullScan) {
+            this.summary = summary;
+            this.fullScan = fullScan;
+        }
+    }
+
+    /**
+     * Wraps the data source so that statements executed while recording are captured with their parameters
+     */
+    private static class SqlRecorder implements BeanPostProcessor {
+        final List<RecordedStatement> statements = new ArrayList<>();
+        private String label;
+
+        void start(String label) {
+            this.label = label;
+        }
+
+        void stop() {
+            label = null;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return recordingConnection(super.getConnection());
+                }
+            };
+        }
+
+        private Connection recordingConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(QueryPlanCheck.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement") && label != null) {
+                            return recordingStatement((PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(QueryPlanCheck.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                        } else if (name.equals("clearParameters")) {
+                            parameters.clear();
+                        } else if (name.startsWith("execute") && (args == null || args.length == 0) && label != null) {
+                            statements.add(new RecordedStatement(label, sql, new TreeMap<>(parameters)));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 import React, { useState, useEffect } from 'react'
 import { Container, Row, Col, Card, Table, Button, Alert, Modal } from 'react-bootstrap'
-import { adminAPI } from '../services/api'
+import { adminAPI, userAPI } from '../services/api'
+
+// Avatars in the user list are 40px, the 64px variant covers them on high density screens
+const AVATAR_SIZE = 40
+const AVATAR_IMAGE_SIZE = 64
 
 function AdminDashboard() {
   const [users, setUsers] = useState([])
@@ -131,7 +135,32 @@ function AdminDashboard() {
                             animation: `fadeIn 0.3s ease-out ${index * 0.05}s both`
                           }}>
                             <td style={{ padding: '16px', fontWeight: '600' }}>{user.id}</td>
-                            <td style={{ padding: '16px', fontWeight: '600' }}>{user.name}</td>
+                            <td style={{ padding: '16px', fontWeight: '600' }}>
+                              <div className="d-flex align-items-center gap-2">
+                                {user.imagePath ? (
+                                  <img
+                                    src={userAPI.getImageUrl(user.imagePath, AVATAR_IMAGE_SIZE)}
+                                    alt=""
+                                    width={AVATAR_SIZE}
+                                    height={AVATAR_SIZE}
+                                    loading="lazy"
+                                    style={{ borderRadius: '50%', objectFit: 'cover' }}
+                                  />
+                                ) : (
+                                  <div style={{
+                                    width: `${AVATAR_SIZE}px`,
+                                    height: `${AVATAR_SIZE}px`,
+                                    borderRadius: '50%',
+                                    background: 'linear-gradient(135deg, #667eea 0%, #764ba2 100%)',
+                                    display: 'flex',
+                                    alignItems: 'center',
+                                    justifyContent: 'center',
+                                    color: 'white',
+                                  }}>👤</div>
+                                )}
+                                {user.name}
+                              </div>
+                            </td>
                             <td style={{ padding: '16px' }}>{user.email}</td>
                             <td style={{ padding: '16px' }}>
                               <span className={`badge ${user.role === 'ROLE_ADMIN' ? 'bg-danger' : 'bg-primary'}`} style={{ borderRadius: '8px', padding: '6px 12px' }}>
@@ -2,6 +2,12 @@ import React, { useState, useEffect, useRef } from 'react'
 import { Container, Row, Col, Card, Table, Button, Form, Modal, Alert, InputGroup } from 'react-bootstrap'
 import { contactAPI, userAPI } from '../services/api'
 
+// The profile picture is 120px wide, 256 covers it on high density screens
+const PROFILE_IMAGE_SIZE = 256
+
+// Search results are fetched in pages of this size, "Load more" fetches the next one
+const SEARCH_PAGE_SIZE = 50
+
 function UserDashboard() {
   const [contacts, setContacts] = useState([])
   const [loading, setLoading] = useState(true)
@@ -10,6 +16,10 @@ function UserDashboard() {
   const [showModal, setShowModal] = useState(false)
   const [editingContact, setEditingContact] = useState(null)
   const [searchKeyword, setSearchKeyword] = useState('')
+  // Keyword and next page of the current search (page null when there is none)
+  const [searchedKeyword, setSearchedKeyword] = useState('')
+  const [nextSearchPage, setNextSearchPage] = useState(null)
+  const [loadingMore, setLoadingMore] = useState(false)
   const [formData, setFormData] = useState({
     name: '',
     email: '',
@@ -20,13 +30,37 @@ function UserDashboard() {
   const [uploadingImage, setUploadingImage] = useState(false)
   const [imagePreview, setImagePreview] = useState(null)
   const fileInputRef = useRef(null)
+  // Search results are not kept up to date by the change stream
+  const searchingRef = useRef(false)
 
   useEffect(() => {
     loadContacts()
     loadUserProfile()
+    // Changes made in other tabs and devices arrive here instead of being polled for
+    return contactAPI.stream({
+      onChange: (type, data) => {
+        if (searchingRef.current) return
+        setContacts((current) =>
+          type === 'deleted' ? removeContact(current, data.id) : upsertContact(current, data)
+        )
+      },
+      onResync: () => {
+        if (!searchingRef.current) loadContacts()
+      },
+    })
   }, [])
 
+  // Both are idempotent: this tab's own changes are applied right away and then arrive on the stream too
+  const upsertContact = (list, contact) =>
+    list.some((c) => c.id === contact.id)
+      ? list.map((c) => (c.id === contact.id ? contact : c))
+      : [...list, contact]
+
+  const removeContact = (list, id) => list.filter((c) => c.id !== id)
+
   const loadContacts = async () => {
+    searchingRef.current = false
+    setNextSearchPage(null)
     try {
       setLoading(true)
       const response = await contactAPI.getAll()
@@ -45,10 +79,13 @@ function UserDashboard() {
       return
     }
 
+    searchingRef.current = true
     try {
       setLoading(true)
-      const response = await contactAPI.search(searchKeyword)
+      const response = await contactAPI.search(searchKeyword, 0, SEARCH_PAGE_SIZE)
       setContacts(response.data)
+      setSearchedKeyword(searchKeyword)
+      setNextSearchPage(response.headers['x-has-next'] === 'true' ? 1 : null)
       setError('')
     } catch (err) {
       setError('Search failed')
@@ -57,6 +94,20 @@ function UserDashboard() {
     }
   }
 
+  const handleLoadMore = async () => {
+    try {
+      setLoadingMore(true)
+      const response = await contactAPI.search(searchedKeyword, nextSearchPage, SEARCH_PAGE_SIZE)
+      setContacts((current) => [...current, ...response.data])
+      setNextSearchPage(response.headers['x-has-next'] === 'true' ? nextSearchPage + 1 : null)
+      setError('')
+    } catch (err) {
+      setError('Search failed')
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   const handleInputChange = (e) => {
     setFormData({
       ...formData,
@@ -100,14 +151,15 @@ function UserDashboard() {
     e.preventDefault()
     try {
       if (editingContact) {
-        await contactAPI.update(editingContact.id, formData)
+        const response = await contactAPI.update(editingContact.id, formData)
+        setContacts((current) => upsertContact(current, response.data))
         setSuccess('Contact updated successfully')
       } else {
-        await contactAPI.create(formData)
+        const response = await contactAPI.create(formData)
+        setContacts((current) => upsertContact(current, response.data))
         setSuccess('Contact added successfully')
       }
       handleCloseModal()
-      loadContacts()
       setTimeout(() => setSuccess(''), 3000)
     } catch (err) {
       setError(err.response?.data?.message || 'Operation failed')
@@ -118,8 +170,8 @@ function UserDashboard() {
     if (window.confirm('Are you sure you want to delete this contact?')) {
       try {
         await contactAPI.delete(id)
+        setContacts((current) => removeContact(current, id))
         setSuccess('Contact deleted successfully')
-        loadContacts()
         setTimeout(() => setSuccess(''), 3000)
       } catch (err) {
         setError('Failed to delete contact')
@@ -132,7 +184,7 @@ function UserDashboard() {
       const response = await userAPI.getProfile()
       setUserProfile(response.data)
       if (response.data.imagePath) {
-        setImagePreview(userAPI.getImageUrl(response.data.imagePath))
+        setImagePreview(userAPI.getImageUrl(response.data.imagePath, PROFILE_IMAGE_SIZE))
       }
     } catch (err) {
       console.error('Failed to load user profile:', err)
@@ -207,7 +259,7 @@ function UserDashboard() {
     }
     // Reload original image
     if (userProfile?.imagePath) {
-      setImagePreview(userAPI.getImageUrl(userProfile.imagePath))
+      setImagePreview(userAPI.getImageUrl(userProfile.imagePath, PROFILE_IMAGE_SIZE))
     } else {
       setImagePreview(null)
     }
@@ -246,9 +298,9 @@ function UserDashboard() {
                       onMouseEnter={(e) => e.currentTarget.style.transform = 'scale(1.05)'}
                       onMouseLeave={(e) => e.currentTarget.style.transform = 'scale(1)'}
                     >
-                      {imagePreview || (userProfile?.imagePath && userAPI.getImageUrl(userProfile.imagePath)) ? (
+                      {imagePreview || (userProfile?.imagePath && userAPI.getImageUrl(userProfile.imagePath, PROFILE_IMAGE_SIZE)) ? (
                         <img
-                          src={imagePreview || userAPI.getImageUrl(userProfile.imagePath)}
+                          src={imagePreview || userAPI.getImageUrl(userProfile.imagePath, PROFILE_IMAGE_SIZE)}
                           alt="Profile"
                           style={{
                             width: '100%',
@@ -304,7 +356,7 @@ function UserDashboard() {
                       {userProfile?.name || currentUser?.name || 'User'}
                     </h3>
                     <p className="text-muted mb-2">{userProfile?.email || currentUser?.email || ''}</p>
-                    {imagePreview && imagePreview !== userAPI.getImageUrl(userProfile?.imagePath) && (
+                    {imagePreview && imagePreview !== userAPI.getImageUrl(userProfile?.imagePath, PROFILE_IMAGE_SIZE) && (
                       <div className="d-flex gap-2 mt-2">
                         <Button
                           variant="success"
@@ -476,6 +528,18 @@ function UserDashboard() {
                       ))}
                     </tbody>
                   </Table>
+                  {nextSearchPage !== null && (
+                    <div className="text-center mt-3">
+                      <Button
+                        variant="outline-primary"
+                        onClick={handleLoadMore}
+                        disabled={loadingMore}
+                        style={{ borderRadius: '12px', fontWeight: '600' }}
+                      >
+                        {loadingMore ? 'Loading...' : '⬇️ Load more'}
+                      </Button>
+                    </div>
+                  )}
                 </div>
               )}
             </Card.Body>
@@ -39,33 +39,95 @@ export const contactAPI = {
   create: (data) => api.post('/contacts', data),
   update: (id, data) => api.put(`/contacts/${id}`, data),
   delete: (id) => api.delete(`/contacts/${id}`),
-  search: (keyword) =>
-    api.get(`/contacts/search?keyword=${keyword}`),
+  // One page of results; the X-Has-Next response header tells whether another page follows
+  search: (keyword, page = 0, size = 50) =>
+    api.get('/contacts/search', { params: { keyword, page, size } }),
+  stream: (handlers) => streamContactChanges(handlers),
+}
+
+// Follow GET /contacts/stream (Server-Sent Events). EventSource cannot send the Authorization
+// header, so the stream is read with fetch. Reconnects after errors; changes missed while
+// disconnected are reported as a resync, like the server does when the client falls behind.
+// onChange(type, data) gets created/updated (data is the contact) and deleted (data is { id }).
+// Returns a function that closes the stream.
+const streamContactChanges = ({ onChange, onResync }) => {
+  const controller = new AbortController()
+  let connected = false
+
+  const dispatch = (block) => {
+    let type = 'message'
+    let data = ''
+    for (const line of block.split('\n')) {
+      if (line.startsWith('event:')) type = line.slice(6).trim()
+      else if (line.startsWith('data:')) data += line.slice(5)
+    }
+    if (!data) return // heartbeat comment
+    if (type === 'resync') onResync()
+    else onChange(type, JSON.parse(data))
+  }
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const response = await fetch(`${API_BASE_URL}/contacts/stream`, {
+          headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+          signal: controller.signal,
+        })
+        if (response.ok) {
+          if (connected) onResync()
+          connected = true
+          const reader = response.body.getReader()
+          const decoder = new TextDecoder()
+          let buffer = ''
+          for (;;) {
+            const { done, value } = await reader.read()
+            if (done) break
+            buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n')
+            let end
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+              dispatch(buffer.slice(0, end))
+              buffer = buffer.slice(end + 2)
+            }
+          }
+          continue // the server ended the stream (timeout), reconnect right away
+        } else if (response.status === 401 || response.status === 403) {
+          return
+        }
+      } catch (err) {
+        if (controller.signal.aborted) return
+      }
+      await new Promise((resolve) => setTimeout(resolve, 5000))
+    }
+  }
+
+  connect()
+  return () => controller.abort()
 }
 
 // USER
 export const userAPI = {
   getProfile: () => api.get('/user/profile'),
 
-  uploadImage: (file) => {
-    const formData = new FormData()
-    formData.append('file', file)
-    return api.post('/user/profile/image', formData, {
-      headers: { 'Content-Type': 'multipart/form-data' },
-    })
-  },
+  // Sent as the raw request body so the backend can stream it straight to disk
+  uploadImage: (file) =>
+    api.post('/user/profile/image', file, {
+      headers: { 'Content-Type': file.type },
+    }),
 
-  // REQUIRED BY UserDashboard.jsx
-  getImageUrl: (imagePath) => {
+  // REQUIRED BY UserDashboard.jsx and AdminDashboard.jsx
+  // size is the largest side in pixels the caller displays the image at (including the device
+  // pixel ratio); the backend serves the closest resized variant (64, 128 or 256) instead of the original
+  getImageUrl: (imagePath, size) => {
     if (!imagePath) return null
     const filename = imagePath.replace('uploads/', '')
-    return `${API_BASE_URL}/user/images/${filename}`
+    return `${API_BASE_URL}/user/images/${filename}?size=${size}`
   },
 }
 
 // ADMIN
 export const adminAPI = {
-  getAllUsers: () => api.get('/admin/users'),
+  // The dashboard only counts each user's contacts, so only their ids are read
+  getAllUsers: () => api.get('/admin/users', { params: { fields: 'id' } }),
   deleteUser: (id) => api.delete(`/admin/users/${id}`),
   getUserContacts: (userId) =>
     api.get(`/admin/users/${userId}/contacts`),
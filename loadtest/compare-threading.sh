@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Compare platform-thread and virtual-thread request handling at increasing concurrency.
+#
+# Usage: ./compare-threading.sh [levels]     (default levels: 1000,2500,5000,10000)
+#
+# Starts the backend jar once per mode with identical connection and pool limits, so only the
+# threading model differs, and runs LoadDriver against it. Needs a Java 21+ runtime on PATH and
+# the usual backend environment (MYSQLHOST, MYSQLPORT, ... or extra --spring.* flags in APP_ARGS).
+#
+# Environment:
+#   JAR        backend jar (default ../backend/target/app-exec.jar)
+#   PORT       port for the backend (default 8080)
+#   DURATION   measured seconds per level (default 30)
+#   PATH_UNDER_TEST  endpoint to load (default /api/contacts)
+#   RESULTS    CSV file results are appended to (default threading-results.csv)
+#   JAVA_OPTS  JVM flags for the backend, e.g. -Djdk.tracePinnedThreads=short
+#   APP_ARGS   extra application arguments
+set -euo pipefail
+cd "$(dirname "$0")"
+
+LEVELS=${1:-1000,2500,5000,10000}
+JAR=${JAR:-../backend/target/app-exec.jar}
+PORT=${PORT:-8080}
+DURATION=${DURATION:-30}
+PATH_UNDER_TEST=${PATH_UNDER_TEST:-/api/contacts}
+RESULTS=${RESULTS:-threading-results.csv}
+
+# Every connection is a file descriptor on both ends
+ulimit -n 65536 2>/dev/null || echo "warning: could not raise the open file limit, high levels may fail"
+
+mvn -q compile
+
+# Same limits in both modes: 10k connections, 20 database connections
+COMMON_ARGS="--server.port=$PORT --server.tomcat.max-connections=10000 --server.tomcat.accept-count=1000 \
+--spring.datasource.hikari.maximum-pool-size=20 ${APP_ARGS:-}"
+
+for mode in platform virtual-threads; do
+    profile_arg=""
+    if [ "$mode" = "virtual-threads" ]; then
+        profile_arg="--spring.profiles.active=virtual-threads"
+    fi
+
+    echo "== $mode"
+    # shellcheck disable=SC2086
+    java ${JAVA_OPTS:-} -jar "$JAR" $COMMON_ARGS $profile_arg > "server-$mode.log" 2>&1 &
+    server_pid=$!
+    trap 'kill $server_pid 2>/dev/null || true' EXIT
+
+    for _ in $(seq 1 120); do
+        if curl -sf "http://localhost:$PORT/api/health" > /dev/null; then
+            break
+        fi
+        sleep 1
+    done
+
+    mvn -q exec:java -Dexec.args="--base-url=http://localhost:$PORT --path=$PATH_UNDER_TEST \
+--connections=$LEVELS --duration=$DURATION --label=$mode --csv=$RESULTS"
+
+    kill "$server_pid"
+    wait "$server_pid" 2>/dev/null || true
+done
+
+echo
+column -t -s, "$RESULTS"
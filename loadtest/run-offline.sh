@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# End-to-end load test without MySQL: builds the backend with embedded H2, starts it with the
+# loadtest profile (generated users and contacts) and replays a mixed workload against it.
+#
+# Usage: ./run-offline.sh [MixedWorkload options]    e.g. ./run-offline.sh --workers=100 --duration=120
+#
+# Environment:
+#   PORT                         backend port (default 8080)
+#   LOADTEST_USERS               generated users (default 100)
+#   LOADTEST_CONTACTS_PER_USER   generated contacts per user (default 50)
+#   JAVA_OPTS                    JVM flags for the backend
+#   SPRING_PROFILES              profiles to add to loadtest, e.g. virtual-threads
+set -euo pipefail
+cd "$(dirname "$0")"
+
+PORT=${PORT:-8080}
+export LOADTEST_USERS=${LOADTEST_USERS:-100}
+export LOADTEST_CONTACTS_PER_USER=${LOADTEST_CONTACTS_PER_USER:-50}
+PROFILES="loadtest${SPRING_PROFILES:+,$SPRING_PROFILES}"
+
+(cd ../backend && mvn -q -Ph2 package -DskipTests)
+mvn -q compile
+
+# shellcheck disable=SC2086
+java ${JAVA_OPTS:-} -jar ../backend/target/app-exec.jar --server.port="$PORT" \
+    --spring.profiles.active="$PROFILES" > server-offline.log 2>&1 &
+server_pid=$!
+trap 'kill $server_pid 2>/dev/null || true' EXIT
+
+# Readiness turns UP once the generated data is in place
+for _ in $(seq 1 180); do
+    if curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; then
+        break
+    fi
+    if ! kill -0 "$server_pid" 2>/dev/null; then
+        echo "backend exited, see server-offline.log" >&2
+        exit 1
+    fi
+    sleep 1
+done
+
+mvn -q exec:java -Dloadtest.main=com.smartcontactmanager.loadtest.MixedWorkload \
+    -Dexec.args="--base-url=http://localhost:$PORT --users=$LOADTEST_USERS $*"
@@ -0,0 +1,272 @@
+package com.smartcontactmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load driver
+ * Keeps a fixed number of connections busy against one endpoint (each connection sends its next
+ * request as soon as the previous one completes) and reports throughput and latency percentiles.
+ * Several concurrency levels can be run in one go, e.g. --connections=1000,2500,5000,10000.
+ *
+ * Options (all --name=value):
+ *   base-url     backend root (default http://localhost:8080)
+ *   path         endpoint to load (default /api/contacts)
+ *   token        JWT to send; otherwise email/password are used to log in (the user is registered if needed)
+ *   auth-url     backend root to log in at (default base-url; the reactive read API has no auth endpoints)
+ *   email        login email (default loadtest@example.com)
+ *   password     login password (default loadtest123)
+ *   connections  comma separated concurrency levels (default 1000)
+ *   duration     measured seconds per level (default 30)
+ *   warmup       unmeasured seconds per level before measuring (default 5)
+ *   ramp         seconds over which connections are opened (default 5)
+ *   timeout      request timeout in seconds (default 30)
+ *   label        name of the run in the report (default "run")
+ *   csv          file to append one result row per level to
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String baseUrl = options.get("base-url", "http://localhost:8080");
+        String label = options.get("label", "run");
+        Duration timeout = Duration.ofSeconds(options.getLong("timeout", 30));
+
+        // Idle connections of a finished level must not count against the next one
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", "5");
+        }
+
+        String token = options.get("token");
+        if (token == null) {
+            token = login(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(),
+                    options.get("auth-url", baseUrl),
+                    options.get("email", "loadtest@example.com"),
+                    options.get("password", "loadtest123"), true);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + options.get("path", "/api/contacts")))
+                .header("Authorization", "Bearer " + token)
+                .timeout(timeout)
+                .GET()
+                .build();
+
+        Report.printHeader();
+        for (String level : options.get("connections", "1000").split(",")) {
+            Result result = runLevel(request, Integer.parseInt(level.trim()),
+                    options.getLong("warmup", 5),
+                    options.getLong("duration", 30),
+                    options.getLong("ramp", 5),
+                    timeout);
+            String name = result.connections + " conns";
+            Report.printRow(label, name, result.requests, result.errors, result.elapsedNanos, result.histogram);
+            if (options.has("csv")) {
+                Report.appendCsv(Path.of(options.get("csv")), label, name,
+                        result.requests, result.errors, result.elapsedNanos, result.histogram);
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Run one concurrency level: ramp up, warm up, then measure
+     */
+    private static Result runLevel(HttpRequest request, int connections, long warmupSeconds,
+                                   long durationSeconds, long rampSeconds, Duration timeout)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+
+        Recorder recorder = new Recorder(3);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        CountDownLatch stopped = new CountDownLatch(connections);
+        List<Loop> loops = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            loops.add(new Loop(client, executor, request, recorder, completed, errors, stopped));
+        }
+
+        // Open connections gradually so the server's accept queue is not the thing being measured
+        long rampNanos = TimeUnit.SECONDS.toNanos(rampSeconds);
+        long rampStart = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            long due = rampStart + rampNanos * i / connections;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            loops.get(i).next();
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        recorder.getIntervalHistogram();
+        long completedBefore = completed.sum();
+        long errorsBefore = errors.sum();
+        long start = System.nanoTime();
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        Histogram histogram = recorder.getIntervalHistogram();
+        long elapsedNanos = System.nanoTime() - start;
+        long requests = completed.sum() - completedBefore;
+        long failed = errors.sum() - errorsBefore;
+
+        for (Loop loop : loops) {
+            loop.stop();
+        }
+        stopped.await(timeout.toSeconds() + 5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        return new Result(connections, requests, failed, elapsedNanos, histogram);
+    }
+
+    /**
+     * Log in and return the JWT
+     * @param register Register the user first if the login is rejected
+     */
+    static String login(HttpClient client, String baseUrl, String email, String password, boolean register)
+            throws IOException, InterruptedException {
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("email", email);
+        credentials.put("password", password);
+        HttpResponse<String> response = postJson(client, baseUrl + "/api/auth/login", credentials);
+        if (response.statusCode() != 200 && response.statusCode() != 503 && register) {
+            credentials.put("name", "Load Test");
+            response = postJson(client, baseUrl + "/api/auth/register", credentials);
+        }
+        if (response.statusCode() == 503) {
+            throw new ServerBusyException(retryAfterMillis(response));
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed (" + response.statusCode() + "): " + response.body());
+        }
+        JsonNode body = MAPPER.readTree(response.body());
+        return body.get("token").asText();
+    }
+
+    /**
+     * How long a 503 response asks the client to wait, 1 second when it does not say
+     */
+    static long retryAfterMillis(HttpResponse<?> response) {
+        try {
+            return response.headers().firstValue("Retry-After").map(Long::parseLong).orElse(1L) * 1000;
+        } catch (NumberFormatException e) {
+            return 1000;
+        }
+    }
+
+    /**
+     * The backend shed the request (503), the client should wait before retrying
+     */
+    static class ServerBusyException extends IllegalStateException {
+        final long retryAfterMillis;
+
+        ServerBusyException(long retryAfterMillis) {
+            super("Server busy (503)");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+    }
+
+    private static HttpResponse<String> postJson(HttpClient client, String url, Object body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * One connection's request loop
+     */
+    private static class Loop {
+        private final HttpClient client;
+        private final Executor executor;
+        private final HttpRequest request;
+        private final Recorder recorder;
+        private final LongAdder completed;
+        private final LongAdder errors;
+        private final CountDownLatch stopped;
+        private volatile boolean running = true;
+
+        Loop(HttpClient client, Executor executor, HttpRequest request, Recorder recorder,
+             LongAdder completed, LongAdder errors, CountDownLatch stopped) {
+            this.client = client;
+            this.executor = executor;
+            this.request = request;
+            this.recorder = recorder;
+            this.completed = completed;
+            this.errors = errors;
+            this.stopped = stopped;
+        }
+
+        void next() {
+            if (!running) {
+                stopped.countDown();
+                return;
+            }
+            long start = System.nanoTime();
+            // Async: a send that fails right away (connection refused) returns a completed future,
+            // and continuing on this stack would recurse until StackOverflowError
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenCompleteAsync((response, failure) -> {
+                        long micros = (System.nanoTime() - start) / 1000;
+                        if (failure != null || response.statusCode() >= 400) {
+                            errors.increment();
+                        } else {
+                            recorder.recordValue(micros);
+                            completed.increment();
+                        }
+                        next();
+                    }, executor);
+        }
+
+        void stop() {
+            running = false;
+        }
+    }
+
+    /**
+     * Outcome of one concurrency level
+     */
+    private static class Result {
+        final int connections;
+        final long requests;
+        final long errors;
+        final long elapsedNanos;
+        final Histogram histogram;
+
+        Result(int connections, long requests, long errors, long elapsedNanos, Histogram histogram) {
+            this.connections = connections;
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.histogram = histogram;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.smartcontactmanager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays a realistic mix of user traffic and reports throughput and latency per endpoint
+ * Each worker logs in as one of the generated users (user1..userN@loadtest.local, see the
+ * backend's loadtest profile) and then picks operations by weight, back to back.
+ *
+ * Options (all --name=value):
+ *   base-url   backend root (default http://localhost:8080)
+ *   users      number of generated users to log in as (default 100)
+ *   password   their password (default loadtest123)
+ *   workers    concurrent simulated users (default 50)
+ *   duration   measured seconds (default 60)
+ *   warmup     unmeasured seconds before measuring (default 10)
+ *   mix        operation weights (default login:5,list:50,search:25,create:15,upload:5)
+ *   think-ms   pause between a worker's requests (default 0)
+ *   timeout    request timeout in seconds (default 30)
+ *   label      name of the run in the report (default "mixed")
+ *   csv        file to append one result row per endpoint to
+ *
+ * Requests the backend sheds (503) count as errors, and the worker waits as long as Retry-After
+ * says before its next request, as the web client does.
+ */
+public class MixedWorkload {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Substrings of the generated names and phone numbers, from selective to broad
+    private static final String[] SEARCH_KEYWORDS = {"Smith", "garcia", "Alice", "Zoe Hall", "555-01", "example"};
+
+    private static final String[] NEW_CONTACT_NAMES = {"Quinn Baker", "Riley Carter", "Sage Dixon", "Taylor Evans"};
+
+    private static final int UPLOAD_IMAGES = 16;
+
+    /**
+     * Operations in the mix, each with its own latency histogram
+     */
+    enum Operation {
+        LOGIN("login"), LIST("list"), SEARCH("search"), CREATE("create"), UPLOAD("upload");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String baseUrl = options.get("base-url", "http://localhost:8080");
+        int users = options.getInt("users", 100);
+        String password = options.get("password", "loadtest123");
+        int workers = options.getInt("workers", 50);
+        long warmupSeconds = options.getLong("warmup", 10);
+        long durationSeconds = options.getLong("duration", 60);
+        long thinkMillis = options.getLong("think-ms", 0);
+        Duration timeout = Duration.ofSeconds(options.getLong("timeout", 30));
+        String label = options.get("label", "mixed");
+
+        Map<Operation, Integer> mix = parseMix(options.get("mix", "login:5,list:50,search:25,create:15,upload:5"));
+        Operation[] schedule = schedule(mix);
+        List<byte[]> images = generateImages();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+
+        Map<Operation, Stats> stats = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            String email = "user" + (i % users + 1) + "@loadtest.local";
+            Worker worker = new Worker(client, baseUrl, email, password, timeout, schedule, images, stats, thinkMillis, end);
+            Thread thread = new Thread(worker, "worker-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        for (Stats s : stats.values()) {
+            s.reset();
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(durationSeconds) + timeout.toMillis() + 5_000);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        Report.printHeader();
+        Histogram total = new Histogram(3);
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            if (!mix.containsKey(entry.getKey())) {
+                continue;
+            }
+            Stats s = entry.getValue();
+            Histogram histogram = s.recorder.getIntervalHistogram();
+            long requests = s.completed.sum();
+            long errors = s.errors.sum();
+            Report.printRow(label, entry.getKey().key, requests, errors, elapsedNanos, histogram);
+            if (options.has("csv")) {
+                Report.appendCsv(Path.of(options.get("csv")), label, entry.getKey().key, requests, errors, elapsedNanos, histogram);
+            }
+            total.add(histogram);
+            totalRequests += requests;
+            totalErrors += errors;
+        }
+        Report.printRow(label, "total", totalRequests, totalErrors, elapsedNanos, total);
+        if (options.has("csv")) {
+            Report.appendCsv(Path.of(options.get("csv")), label, "total", totalRequests, totalErrors, elapsedNanos, total);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Parse "name:weight,..." into operation weights
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase());
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(operation, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty mix: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * Expand weights into a table that a uniform random index picks from
+     */
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        List<Operation> table = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                table.add(entry.getKey());
+            }
+        }
+        return table.toArray(new Operation[0]);
+    }
+
+    /**
+     * Distinct small PNGs, so uploads exercise the store path rather than only deduplication
+     */
+    private static List<byte[]> generateImages() throws IOException {
+        Random random = new Random(7);
+        List<byte[]> images = new ArrayList<>(UPLOAD_IMAGES);
+        for (int i = 0; i < UPLOAD_IMAGES; i++) {
+            BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < image.getHeight(); y += 8) {
+                for (int x = 0; x < image.getWidth(); x += 8) {
+                    int rgb = random.nextInt(0xFFFFFF);
+                    for (int dy = 0; dy < 8; dy++) {
+                        for (int dx = 0; dx < 8; dx++) {
+                            image.setRGB(x + dx, y + dy, rgb);
+                        }
+                    }
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            images.add(out.toByteArray());
+        }
+        return images;
+    }
+
+    /**
+     * Latency and counts of one operation
+     */
+    private static class Stats {
+        final Recorder recorder = new Recorder(3);
+        final LongAdder completed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        void record(long startNanos, boolean ok) {
+            if (ok) {
+                recorder.recordValue((System.nanoTime() - startNanos) / 1000);
+                completed.increment();
+            } else {
+                errors.increment();
+            }
+        }
+
+        void reset() {
+            recorder.getIntervalHistogram();
+            completed.reset();
+            errors.reset();
+        }
+    }
+
+    /**
+     * One simulated user
+     */
+    private static class Worker implements Runnable {
+        private final HttpClient client;
+        private final String baseUrl;
+        private final String email;
+        private final String password;
+        private final Duration timeout;
+        private final Operation[] schedule;
+        private final List<byte[]> images;
+        private final Map<Operation, Stats> stats;
+        private final long thinkMillis;
+        private final long endNanos;
+        private String token;
+        // Set by a 503, the wait before the next request
+        private long retryAfterMillis;
+
+        Worker(HttpClient client, String baseUrl, String email, String password, Duration timeout,
+               Operation[] schedule, List<byte[]> images, Map<Operation, Stats> stats, long thinkMillis, long endNanos) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.email = email;
+            this.password = password;
+            this.timeout = timeout;
+            this.schedule = schedule;
+            this.images = images;
+            this.stats = stats;
+            this.thinkMillis = thinkMillis;
+            this.endNanos = endNanos;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Operation operation = Operation.LOGIN;
+            while (System.nanoTime() < endNanos) {
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = execute(operation, random);
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    return;
+                }
+                stats.get(operation).record(start, ok);
+
+                if (token == null) {
+                    // Keep logging in until it works, nothing else can be sent without a token
+                    operation = Operation.LOGIN;
+                } else {
+                    operation = schedule[random.nextInt(schedule.length)];
+                }
+                long pause = Math.max(thinkMillis, retryAfterMillis);
+                retryAfterMillis = 0;
+                if (pause > 0) {
+                    try {
+                        Thread.sleep(pause);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private boolean execute(Operation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+            switch (operation) {
+                case LOGIN:
+                    try {
+                        token = LoadDriver.login(client, baseUrl, email, password, false);
+                        return true;
+                    } catch (LoadDriver.ServerBusyException e) {
+                        retryAfterMillis = e.retryAfterMillis;
+                        return false;
+                    } catch (IllegalStateException e) {
+                        return false;
+                    }
+                case LIST:
+                    return send(request("/api/contacts").GET());
+                case SEARCH:
+                    String keyword = SEARCH_KEYWORDS[random.nextInt(SEARCH_KEYWORDS.length)];
+                    return send(request("/api/contacts/search?keyword=" + URLEncoder.encode(keyword, StandardCharsets.UTF_8)).GET());
+                case CREATE:
+                    Map<String, String> contact = new LinkedHashMap<>();
+                    contact.put("name", NEW_CONTACT_NAMES[random.nextInt(NEW_CONTACT_NAMES.length)]);
+                    int number = random.nextInt(1_000_000);
+                    contact.put("email", "new" + number + "@example.com");
+                    contact.put("phone", String.format("+1-555-%07d", number));
+                    contact.put("description", "Created by the load test");
+                    return send(request("/api/contacts")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(contact))));
+                case UPLOAD:
+                    byte[] image = images.get(random.nextInt(images.size()));
+                    return send(request("/api/user/profile/image")
+                            .header("Content-Type", "image/png")
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(image)));
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation);
+            }
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(timeout);
+        }
+
+        private boolean send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 503) {
+                retryAfterMillis = LoadDriver.retryAfterMillis(response);
+            }
+            return response.statusCode() < 400;
+        }
+    }
+}
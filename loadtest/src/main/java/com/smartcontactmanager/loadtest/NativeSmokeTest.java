@@ -0,0 +1,308 @@
+package com.smartcontactmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Smoke test for the native backend binary
+ * Starts the binary against the embedded H2 database (loadtest Spring profile), reports the time
+ * until /api/health answers and the resident memory after the checks, and calls every endpoint of
+ * every controller once: auth, profile and image upload (multipart and raw), contacts including
+ * search, field selection and the change stream, admin, health, an error answered by
+ * GlobalExceptionHandler and the actuator endpoints. Most failures of a native image (missing
+ * reflection or resource hints) show up as a 500 or a wrong body on one of them.
+ *
+ * Options (all --name=value):
+ *   command          how to start the backend, split on spaces (default ../backend/target/app,
+ *                    built with mvn -Pnative,h2 package); e.g. "java -jar ../backend/target/app-exec.jar"
+ *                    runs the same checks against the JVM build
+ *   port             backend port (default 18080)
+ *   startup-timeout  seconds to wait for /api/health (default 60)
+ * Exits with status 1 when a check fails.
+ */
+public class NativeSmokeTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final List<String> failures = new ArrayList<>();
+    private int checks;
+
+    private NativeSmokeTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        int port = options.getInt("port", 18080);
+        Path uploadDir = Files.createTempDirectory("native-smoke-uploads");
+
+        List<String> command = new ArrayList<>(Arrays.asList(
+                options.get("command", "../backend/target/app").trim().split(" +")));
+        command.add("--server.port=" + port);
+        command.add("--spring.profiles.active=loadtest");
+        command.add("--file.upload-dir=" + uploadDir);
+        // Generated load test data is not needed, and the reactive read API is not part of the image
+        command.add("--loadtest.data.users=1");
+        command.add("--loadtest.data.contacts-per-user=1");
+        command.add("--contacts.reactive.enabled=false");
+
+        Path log = Files.createTempFile("native-smoke", ".log");
+        long start = System.nanoTime();
+        Process backend = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        NativeSmokeTest test = new NativeSmokeTest("http://localhost:" + port);
+        try {
+            long startupMillis = test.awaitHealthy(start, options.getLong("startup-timeout", 60));
+            if (startupMillis < 0) {
+                System.out.println("Backend did not become healthy, log: " + log);
+                System.exit(1);
+            }
+            System.out.printf("Healthy after %d ms (pid %d)%n", startupMillis, backend.pid());
+
+            test.run();
+
+            String rss = residentMemory(backend.pid());
+            System.out.printf("%d checks, %d failed; resident memory %s; log: %s%n",
+                    test.checks, test.failures.size(), rss, log);
+            for (String failure : test.failures) {
+                System.out.println("FAILED " + failure);
+            }
+        } finally {
+            backend.destroy();
+            if (!backend.waitFor(10, TimeUnit.SECONDS)) {
+                backend.destroyForcibly();
+            }
+        }
+        System.exit(test.failures.isEmpty() ? 0 : 1);
+    }
+
+    private long awaitHealthy(long start, long timeoutSeconds) throws InterruptedException {
+        long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (send(get("/api/health", null)).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        return -1;
+    }
+
+    private void run() throws Exception {
+        // HealthController
+        check("health", get("/api/health", null), 200, "UP");
+        check("health db", get("/api/health/db", null), 200, null);
+
+        // AuthController
+        String email = "smoke-" + System.currentTimeMillis() + "@example.com";
+        check("register", postJson("/api/auth/register", null,
+                Map.of("name", "Smoke Test", "email", email, "password", "smoke123")), 200, "token");
+        JsonNode login = json(check("login", postJson("/api/auth/login", null,
+                Map.of("email", email, "password", "smoke123")), 200, "token"));
+        check("login with a wrong password", postJson("/api/auth/login", null,
+                Map.of("email", email, "password", "wrong-password")), 401, "message");
+        String adminEmail = "admin-" + email;
+        check("admin register", postJson("/api/auth/admin/register", null,
+                Map.of("name", "Smoke Admin", "email", adminEmail, "password", "smoke123")), 200, "token");
+        JsonNode adminLogin = json(check("admin login", postJson("/api/auth/admin/login", null,
+                Map.of("email", adminEmail, "password", "smoke123")), 200, "token"));
+        if (login == null || adminLogin == null) {
+            failures.add("no token, skipping the authenticated checks");
+            return;
+        }
+        String token = login.get("token").asText();
+        String adminToken = adminLogin.get("token").asText();
+        long userId = login.get("userId").asLong();
+
+        // Security
+        check("contacts without a token", get("/api/contacts", null), 403, null);
+        check("admin endpoint as a user", get("/api/admin/users", token), 403, null);
+
+        // UserController
+        check("profile", get("/api/user/profile", token), 200, email);
+        byte[] png = png();
+        JsonNode upload = json(check("image upload (raw body)", request("/api/user/profile/image", token)
+                .header("Content-Type", "image/png")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(png)), 200, "imageUrl"));
+        check("image upload (multipart)", multipart("/api/user/profile/image", token, png), 200, "imageUrl");
+        if (upload != null) {
+            check("image download", get(upload.get("imageUrl").asText(), null), 200, null);
+        }
+
+        // ContactController
+        JsonNode created = json(check("create contact", postJson("/api/contacts", token,
+                Map.of("name", "Ada Lovelace", "email", "ada@example.com", "phone", "555-0100")), 201, "Ada"));
+        check("invalid contact (generic error handler)", postJson("/api/contacts", token, Map.of("name", "")), 500, "message");
+        check("list contacts", get("/api/contacts", token), 200, "Ada");
+        check("list contacts with fields", get("/api/contacts?fields=id,name", token), 200, "Ada");
+        check("search contacts", get("/api/contacts/search?keyword=Ada", token), 200, "Ada");
+        checkStream(token);
+        if (created != null) {
+            long contactId = created.get("id").asLong();
+            check("update contact", request("/api/contacts/" + contactId, token)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(
+                            Map.of("name", "Ada King", "email", "ada@example.com")))), 200, "Ada King");
+            check("delete contact", request("/api/contacts/" + contactId, token).DELETE(), 200, "deleted");
+        }
+
+        // GlobalExceptionHandler
+        check("malformed contact id", request("/api/contacts/not-a-number", token).DELETE(), 400, "Bad Request");
+
+        // AdminController
+        check("admin users", get("/api/admin/users", adminToken), 200, email);
+        check("admin user contacts", get("/api/admin/users/" + userId + "/contacts", adminToken), 200, null);
+        check("admin image cache", get("/api/admin/image-cache", adminToken), 200, null);
+        check("admin storage gc", get("/api/admin/storage/gc", adminToken), 200, null);
+        check("admin start storage migration", request("/api/admin/storage/migration", adminToken)
+                .POST(HttpRequest.BodyPublishers.noBody()), 202, null);
+        check("admin storage migration", get("/api/admin/storage/migration", adminToken), 200, null);
+        check("admin delete user", request("/api/admin/users/" + userId, adminToken).DELETE(), 200, "deleted");
+
+        // Actuator
+        check("actuator health", get("/actuator/health", null), 200, "UP");
+        check("actuator prometheus", get("/actuator/prometheus", adminToken), 200, "jvm_");
+        check("actuator prometheus without a token", get("/actuator/prometheus", null), 403, null);
+    }
+
+    /**
+     * Open the change stream and wait for its first line, the "connected" comment
+     */
+    private void checkStream(String token) throws InterruptedException {
+        checks++;
+        try {
+            HttpResponse<InputStream> response = client.send(request("/api/contacts/stream", token)
+                    .header("Accept", "text/event-stream")
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line = response.statusCode() == 200 ? reader.readLine() : null;
+                if (line == null || !line.contains("connected")) {
+                    failures.add("contact stream: status " + response.statusCode() + ", first line " + line);
+                }
+            }
+        } catch (IOException e) {
+            failures.add("contact stream: " + e);
+        }
+    }
+
+    /**
+     * Send a request and compare its status and body
+     * @param expectedBody Text the body must contain, or null
+     * @return The body, or null when the check failed
+     */
+    private String check(String name, HttpRequest.Builder request, int expectedStatus, String expectedBody)
+            throws InterruptedException {
+        checks++;
+        try {
+            HttpResponse<String> response = send(request);
+            if (response.statusCode() != expectedStatus
+                    || (expectedBody != null && !response.body().contains(expectedBody))) {
+                failures.add(name + ": expected " + expectedStatus + " but got " + response.statusCode()
+                        + " " + abbreviate(response.body()));
+                return null;
+            }
+            return response.body();
+        } catch (IOException e) {
+            failures.add(name + ": " + e);
+            return null;
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.Builder get(String path, String token) {
+        return request(path, token).GET();
+    }
+
+    private HttpRequest.Builder postJson(String path, String token, Object body) throws IOException {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+    }
+
+    private HttpRequest.Builder multipart(String path, String token, byte[] file) throws IOException {
+        String boundary = "smoke" + System.nanoTime();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"smoke.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(file);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return request(path, token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+    }
+
+    private static JsonNode json(String body) throws IOException {
+        return body != null ? MAPPER.readTree(body) : null;
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 64; x++) {
+            image.setRGB(x, x, 0xff8800);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static String residentMemory(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/" + pid + "/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return line.substring("VmRSS:".length()).trim();
+                }
+            }
+        } catch (IOException e) {
+            // Not Linux
+        }
+        return "unknown";
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() > 200 ? body.substring(0, 200) + "..." : body;
+    }
+}
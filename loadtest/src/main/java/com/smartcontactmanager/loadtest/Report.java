@@ -0,0 +1,56 @@
+package com.smartcontactmanager.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Result table (stdout) and CSV rows shared by the load drivers
+ * Latencies are recorded in microseconds and reported in milliseconds.
+ */
+final class Report {
+
+    private static final String CSV_HEADER = "label,name,requests,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private Report() {
+    }
+
+    static void printHeader() {
+        System.out.printf("%-16s %-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "label", "name", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    static void printRow(String label, String name, long requests, long errors, long elapsedNanos, Histogram histogram) {
+        System.out.printf("%-16s %-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label, name, requests, errors, throughput(requests, elapsedNanos),
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    static void appendCsv(Path file, String label, String name, long requests, long errors, long elapsedNanos,
+                          Histogram histogram) throws IOException {
+        boolean header = !Files.exists(file) || Files.size(file) == 0;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (header) {
+                out.println(CSV_HEADER);
+            }
+            out.printf("%s,%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                    label, name, requests, errors, throughput(requests, elapsedNanos),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    private static double throughput(long requests, long elapsedNanos) {
+        return requests * 1e9 / elapsedNanos;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
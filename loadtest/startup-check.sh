@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Measure backend startup time and fail when it is over budget.
+#
+# Usage: ./startup-check.sh [runs]     (default 5 runs per mode)
+#
+# Starts the backend jar the given number of times per mode and reads the time to ready from the
+# "Ready in N ms" line StartupReport logs, then prints the median, minimum and maximum per mode.
+# Exits with status 1 when a median is above BUDGET_MS, so it can gate a build. Needs the usual
+# backend environment (MYSQLHOST, MYSQLPORT, ... or extra --spring.* flags in APP_ARGS); the
+# database is migrated by the first run, so later runs measure a steady-state boot.
+#
+# Modes:
+#   plain  java -jar app-exec.jar
+#   cds    the fast-startup Maven profile's layout: target/app.jar with the class data sharing
+#          archive target/app.jsa and the fast-startup Spring profile (mvn -Pfast-startup package)
+#
+# Environment:
+#   MODES      modes to measure (default plain,cds)
+#   TARGET     backend build directory (default ../backend/target)
+#   PORT       port for the backend (default 8080)
+#   BUDGET_MS  highest acceptable median time to ready (default 0, no budget)
+#   JAVA_OPTS  JVM flags for the backend
+#   APP_ARGS   extra application arguments
+set -euo pipefail
+cd "$(dirname "$0")"
+
+RUNS=${1:-5}
+MODES=${MODES:-plain,cds}
+TARGET=${TARGET:-../backend/target}
+PORT=${PORT:-8080}
+BUDGET_MS=${BUDGET_MS:-0}
+
+failed=0
+for mode in ${MODES//,/ }; do
+    # The archive only matches the class path it was trained with, so app.jar runs from its own directory
+    case "$mode" in
+        plain) command="java ${JAVA_OPTS:-} -jar app-exec.jar" ;;
+        cds) command="java -XX:SharedArchiveFile=app.jsa ${JAVA_OPTS:-} -jar app.jar --spring.profiles.active=fast-startup" ;;
+        *) echo "unknown mode: $mode" >&2; exit 2 ;;
+    esac
+
+    times=()
+    for run in $(seq 1 "$RUNS"); do
+        log="$PWD/startup-$mode-$run.log"
+        # shellcheck disable=SC2086
+        (cd "$TARGET" && exec $command --server.port="$PORT" ${APP_ARGS:-}) > "$log" 2>&1 &
+        server_pid=$!
+        trap 'kill $server_pid 2>/dev/null || true' EXIT
+
+        ready=""
+        for _ in $(seq 1 300); do
+            ready=$(sed -n 's/.*Ready in \([0-9]*\) ms.*/\1/p' "$log")
+            if [ -n "$ready" ] || ! kill -0 "$server_pid" 2>/dev/null; then
+                break
+            fi
+            sleep 1
+        done
+        kill "$server_pid" 2>/dev/null || true
+        wait "$server_pid" 2>/dev/null || true
+
+        if [ -z "$ready" ]; then
+            echo "$mode run $run did not start, see $log" >&2
+            exit 2
+        fi
+        echo "$mode run $run: $ready ms"
+        times+=("$ready")
+    done
+
+    read -r median min max < <(printf '%s\n' "${times[@]}" | sort -n | awk '
+        { t[NR] = $1 }
+        END { print t[int((NR + 1) / 2)], t[1], t[NR] }')
+    echo "== $mode: median $median ms (min $min, max $max)"
+    if [ "$BUDGET_MS" -gt 0 ] && [ "$median" -gt "$BUDGET_MS" ]; then
+        echo "$mode is over the startup budget of $BUDGET_MS ms" >&2
+        failed=1
+    fi
+done
+exit $failed